@@ -0,0 +1,46 @@
+#!/bin/bash
+# Compares throughput and p99 latency of request handling on platform threads
+# and on virtual threads. Needs the postgres from docker-compose running with
+# some data in it (see seed-data.sh), a built jar (./mvnw package) and hey
+# (https://github.com/rakyll/hey) on the PATH.
+#
+# usage: ./hack/load-test.sh [company id] [concurrency] [duration]
+
+set -euo pipefail
+
+COMPANY_ID=${1:-1}
+CONCURRENCY=${2:-2000}
+DURATION=${3:-30s}
+PORT=8080
+JAR=$(ls target/application-*.jar | head -n 1)
+URLS=(
+  "http://localhost:$PORT/api/companies/$COMPANY_ID/drivers"
+  "http://localhost:$PORT/api/companies/$COMPANY_ID/transports"
+  "http://localhost:$PORT/api/report/companies/$COMPANY_ID"
+)
+
+run() {
+  local mode=$1
+  shift
+  java -jar "$JAR" --server.port=$PORT "$@" > "target/load-test-$mode.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null" EXIT
+  until curl -s -o /dev/null "http://localhost:$PORT/api/companies"; do
+    sleep 1
+  done
+
+  for url in "${URLS[@]}"; do
+    # warm up, then measure
+    hey -z 5s -c 50 "$url" > /dev/null
+    echo "$mode $url"
+    hey -z "$DURATION" -c "$CONCURRENCY" "$url" \
+      | grep -E "Requests/sec|99% in|\[[0-9]+\]" | sed 's/^/  /'
+  done
+
+  kill $pid
+  wait $pid 2>/dev/null || true
+  trap - EXIT
+}
+
+run platform --spring.threads.virtual.enabled=false --tc.database.admission.enabled=false
+run virtual --spring.threads.virtual.enabled=true --tc.database.admission.enabled=true
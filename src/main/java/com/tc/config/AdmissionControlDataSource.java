@@ -0,0 +1,140 @@
+package com.tc.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.tc.exception.DatabaseBusyException;
+
+/**
+ * Admits at most a fixed number of connections to the target data source at
+ * once. Callers beyond the limit park on a fair semaphore, which is cheap for
+ * virtual threads, rather than inside the connection pool, and give up with
+ * a {@link DatabaseBusyException} once the timeout passes. A permit is held
+ * from {@code getConnection()} until the connection is closed.
+ */
+public class AdmissionControlDataSource extends DelegatingDataSource {
+    private static final ThreadLocal<Boolean> NO_WAIT = new ThreadLocal<>();
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long timeoutNanos;
+
+    public AdmissionControlDataSource(DataSource target, int maxConcurrent, Duration timeout) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return admitted(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return admitted(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the action with the connections it opens on this thread admitted
+     * only when a permit is free right away. Otherwise they fail with a
+     * {@link DatabaseBusyException} at once, for work that has a cheaper
+     * fallback than waiting, like a query the caller can run itself.
+     */
+    public static <T> T withoutWaiting(Supplier<T> action) {
+        var previous = NO_WAIT.get();
+        NO_WAIT.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                NO_WAIT.remove();
+            } else {
+                NO_WAIT.set(previous);
+            }
+        }
+    }
+
+    public int getMaxConcurrent() {
+        return this.maxConcurrent;
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            // a zero timeout, unlike tryAcquire(), does not jump the queue of a fair semaphore
+            var wait = Boolean.TRUE.equals(NO_WAIT.get()) ? 0 : timeoutNanos;
+            if (!permits.tryAcquire(wait, TimeUnit.NANOSECONDS)) {
+                throw new DatabaseBusyException("the database is busy, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("interrupted while waiting for database admission", e);
+        }
+    }
+
+    private Connection admitted(Connection connection) {
+        var released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "unwrap":
+                            if (((Class<?>) args[0]).isInstance(proxy)) {
+                                return proxy;
+                            }
+                            break;
+                        case "isWrapperFor":
+                            if (((Class<?>) args[0]).isInstance(proxy)) {
+                                return true;
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,40 @@
+package com.tc.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Puts an {@link AdmissionControlDataSource} in front of the application's
+ * data source. With request handling on virtual threads the number of
+ * concurrent requests is no longer bounded by a thread pool, so this is what
+ * keeps them from piling up on the connection pool and the database.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tc.database.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class DatabaseAdmissionConfiguration {
+
+    @Bean
+    static BeanPostProcessor databaseAdmissionPostProcessor(Environment environment) {
+        var maxConcurrent = environment.getProperty("tc.database.admission.max-concurrent", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        var timeout = environment.getProperty("tc.database.admission.timeout", Duration.class,
+                Duration.ofSeconds(10));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof AdmissionControlDataSource)
+                        && beanName.equals("dataSource")) {
+                    return new AdmissionControlDataSource(dataSource, maxConcurrent, timeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
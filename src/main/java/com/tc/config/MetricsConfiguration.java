@@ -0,0 +1,63 @@
+package com.tc.config;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.tc.metrics.StatementCountFilter;
+import com.tc.metrics.StatementCounter;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Metrics on top of what actuator already records: HTTP server timers for the
+ * controllers, Spring Data repository invocation timers and Hikari pool
+ * gauges are auto-configured, their percentiles are set in
+ * application.properties.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    /**
+     * Times the methods annotated with {@code @Timed}, like the hand-written
+     * queries that Spring Data's repository metrics do not cover.
+     */
+    @Bean
+    TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    StatementCountFilter statementCountFilter(MeterRegistry meterRegistry,
+            @Value("${tc.statements.budget:20}") int budget) {
+        return new StatementCountFilter(meterRegistry, budget);
+    }
+
+    @Bean
+    MeterBinder databaseAdmissionMetrics(DataSource dataSource) {
+        return registry -> {
+            if (!(dataSource instanceof AdmissionControlDataSource admission)) {
+                return;
+            }
+            Gauge.builder("tc.database.admission.available", admission,
+                    AdmissionControlDataSource::getAvailablePermits)
+                    .description("Permits left before requests have to wait for the database")
+                    .register(registry);
+            Gauge.builder("tc.database.admission.waiting", admission, AdmissionControlDataSource::getQueueLength)
+                    .description("Requests waiting for a database permit")
+                    .register(registry);
+        };
+    }
+}
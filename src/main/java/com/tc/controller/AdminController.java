@@ -0,0 +1,72 @@
+package com.tc.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.tc.response.CacheStatsResponse;
+import com.tc.service.CompanyLookupCache;
+import com.tc.service.ReportCache;
+import com.tc.service.RevenueRollupService;
+import com.tc.service.SecondLevelCacheStatistics;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Admin")
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    private final RevenueRollupService revenueRollupService;
+    private final CompanyLookupCache companyLookupCache;
+    private final SecondLevelCacheStatistics secondLevelCacheStatistics;
+    private final ReportCache reportCache;
+
+    public AdminController(RevenueRollupService revenueRollupService, CompanyLookupCache companyLookupCache,
+            SecondLevelCacheStatistics secondLevelCacheStatistics, ReportCache reportCache) {
+        this.revenueRollupService = revenueRollupService;
+        this.companyLookupCache = companyLookupCache;
+        this.secondLevelCacheStatistics = secondLevelCacheStatistics;
+        this.reportCache = reportCache;
+    }
+
+    @Operation(summary = "Rebuild the daily revenue rollup from the transport tables")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "The rollup was rebuilt") })
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<HttpStatus> rebuildRollup() {
+        revenueRollupService.rebuild();
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @Operation(summary = "Retrieve the hit and miss statistics of the company lookup cache")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The cache statistics were retrieved") })
+    @GetMapping("/caches/company")
+    public ResponseEntity<CacheStatsResponse> getCompanyCacheStats() {
+        return new ResponseEntity<>(companyLookupCache.stats(), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Retrieve the hit and miss statistics of the company report cache")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The cache statistics were retrieved") })
+    @GetMapping("/caches/report")
+    public ResponseEntity<CacheStatsResponse> getReportCacheStats() {
+        return new ResponseEntity<>(reportCache.stats(), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Retrieve the hit and miss statistics of the Hibernate second-level cache regions")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The cache statistics were retrieved") })
+    @GetMapping("/caches/second-level")
+    public ResponseEntity<List<CacheStatsResponse>> getSecondLevelCacheStats() {
+        return new ResponseEntity<>(secondLevelCacheStatistics.regions(), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,70 @@
+package com.tc.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.tc.exception.BadRequestException;
+import com.tc.repository.AvailabilityRepository;
+import com.tc.response.AvailabilityResponse;
+import com.tc.service.CompanyLookupCache;
+import com.tc.service.CompanyRevisionService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Availability")
+@RestController
+@RequestMapping("/api")
+public class AvailabilityController {
+    private final CompanyLookupCache companyLookupCache;
+    private final CompanyRevisionService companyRevisionService;
+    private final AvailabilityRepository availabilityRepository;
+
+    public AvailabilityController(CompanyLookupCache companyLookupCache,
+            CompanyRevisionService companyRevisionService, AvailabilityRepository availabilityRepository) {
+        this.companyLookupCache = companyLookupCache;
+        this.companyRevisionService = companyRevisionService;
+        this.availabilityRepository = availabilityRepository;
+    }
+
+    @Operation(summary = "Retrieve the drivers and vehicles of a company that have no transport in a period")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The free drivers and vehicles were retrieved"),
+            @ApiResponse(responseCode = "304", description = "The availability did not change since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "The period is not valid"),
+            @ApiResponse(responseCode = "404", description = "The company was not found") })
+    @Transactional(readOnly = true)
+    @GetMapping("/companies/{companyId}/availability")
+    public ResponseEntity<AvailabilityResponse> getAvailability(
+            @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId,
+            @Parameter(description = "the first day of the period") @RequestParam LocalDate from,
+            @Parameter(description = "the last day of the period") @RequestParam LocalDate to,
+            @Parameter(description = "the qualification the drivers must have") @RequestParam(required = false) String qualification,
+            @Parameter(description = "the minimum capacity of the vehicles") @RequestParam(required = false) Integer minCapacity,
+            @Parameter(description = "the type of the vehicles, example value TRUCK") @RequestParam(required = false) String vehicleType,
+            WebRequest webRequest) {
+        if (to.isBefore(from)) {
+            throw new BadRequestException("to: must not be before from");
+        }
+        companyLookupCache.require(companyId);
+        if (webRequest.checkNotModified(companyRevisionService.etag(companyId))) {
+            return null;
+        }
+
+        var drivers = availabilityRepository.findFreeDrivers(companyId, from, to, qualification);
+        var vehicles = availabilityRepository.findFreeVehicles(companyId, from, to, minCapacity, vehicleType);
+        return new ResponseEntity<>(new AvailabilityResponse(drivers, vehicles), HttpStatus.OK);
+    }
+}
@@ -1,12 +1,17 @@
 package com.tc.controller;
 
+import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
-import org.javatuples.Quartet;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -16,20 +21,27 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.tc.exception.BadRequestException;
 import com.tc.exception.NotFoundException;
 import com.tc.model.CargoTransport;
-import com.tc.model.Company;
-import com.tc.model.Customer;
-import com.tc.model.Driver;
 import com.tc.model.Vehicle;
-import com.tc.repository.CompanyRepository;
 import com.tc.repository.CargoTransportRepository;
 import com.tc.request.CreateCargoTransportRequest;
+import com.tc.request.PlanCargoRequest;
+import com.tc.request.TransportCursor;
 import com.tc.request.UpdateCargoTransportRequest;
+import com.tc.response.BatchResponse;
+import com.tc.response.CargoPlanResponse;
 import com.tc.response.CargoTransportResponse;
-import com.tc.specification.TransportSpecification;
+import com.tc.service.CargoPlanningService;
+import com.tc.service.CompanyLookupCache;
+import com.tc.service.CompanyRevisionService;
+import com.tc.service.RevenueRollupService;
+import com.tc.service.TransportBatchService;
+import com.tc.service.TransportBookingService;
+import com.tc.service.TransportReferenceResolver;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -42,47 +54,65 @@ import jakarta.validation.Valid;
 @RestController
 @RequestMapping("/api")
 public class CargoTransportController {
-        private final CompanyRepository companyRepository;
+        private final CompanyLookupCache companyLookupCache;
+        private final CompanyRevisionService companyRevisionService;
         private final CargoTransportRepository cargoTransportRepository;
+        private final RevenueRollupService revenueRollupService;
+        private final TransportReferenceResolver transportReferenceResolver;
+        private final TransportBatchService transportBatchService;
+        private final TransportBookingService transportBookingService;
+        private final CargoPlanningService cargoPlanningService;
 
-        public CargoTransportController(CompanyRepository companyRepository,
-                        CargoTransportRepository cargoTransportRepository) {
-                this.companyRepository = companyRepository;
+        public CargoTransportController(CompanyLookupCache companyLookupCache,
+                        CargoTransportRepository cargoTransportRepository,
+                        RevenueRollupService revenueRollupService,
+                        TransportReferenceResolver transportReferenceResolver,
+                        TransportBatchService transportBatchService,
+                        CompanyRevisionService companyRevisionService,
+                        TransportBookingService transportBookingService,
+                        CargoPlanningService cargoPlanningService) {
+                this.companyLookupCache = companyLookupCache;
+                this.companyRevisionService = companyRevisionService;
                 this.cargoTransportRepository = cargoTransportRepository;
+                this.revenueRollupService = revenueRollupService;
+                this.transportReferenceResolver = transportReferenceResolver;
+                this.transportBatchService = transportBatchService;
+                this.transportBookingService = transportBookingService;
+                this.cargoPlanningService = cargoPlanningService;
         }
 
         @Operation(summary = "Retrieve cargo transports of a company")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "The cargo transports were retrieved"),
+                        @ApiResponse(responseCode = "304", description = "The cargo transports did not change since the given ETag"),
                         @ApiResponse(responseCode = "404", description = "The company was not found"), })
         @GetMapping("/companies/{companyId}/cargotransport")
         public ResponseEntity<List<CargoTransportResponse>> getCargoTransportByCompanyId(
                         @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId,
                         @Parameter(description = "the transport destination") @RequestParam(required = false) String destination,
-                        @Parameter(description = "the requested page") @RequestParam(defaultValue = "0") int page) {
-                var company = companyRepository.findById(companyId)
-                                .orElseThrow(() -> new NotFoundException("company not found"));
-                Specification<CargoTransport> hasCompanyId = TransportSpecification.hasCompanyId(company.getId());
-                Specification<CargoTransport> filters = Specification
-                                .where(hasCompanyId)
-                                .and(destination == null ? null : TransportSpecification.hasDestination(destination));
-                var cargoTransport = cargoTransportRepository.findAll(filters, PageRequest.of(page, 20));
-                var cargoTransportResponse = cargoTransport.stream().map(transport -> {
-                        return new CargoTransportResponse(
-                                        transport.getId(),
-                                        transport.getStartAddress(),
-                                        transport.getEndAddress(),
-                                        transport.getStartDate(),
-                                        transport.getEndDate(),
-                                        transport.getCargoType(),
-                                        transport.getCargoWeight(),
-                                        transport.getPrice(),
-                                        transport.getIsPaid(),
-                                        transport.getCustomer().getId(),
-                                        transport.getVehicle().getId(),
-                                        transport.getDriver().getId());
-                }).toList();
-                return new ResponseEntity<>(cargoTransportResponse, HttpStatus.OK);
+                        @Parameter(description = "the requested page") @RequestParam(defaultValue = "0") int page,
+                        @Parameter(description = "the X-Next-Cursor of the previous page, takes precedence over page") @RequestParam(required = false) String after,
+                        WebRequest webRequest) {
+                companyLookupCache.require(companyId);
+                if (webRequest.checkNotModified(companyRevisionService.etag(companyId))) {
+                        return null;
+                }
+                Slice<CargoTransportResponse> cargoTransportResponse;
+                if (after == null) {
+                        cargoTransportResponse = cargoTransportRepository.findPage(companyId, destination,
+                                        PageRequest.of(page, 20));
+                } else {
+                        var cursor = TransportCursor.decode(after);
+                        cargoTransportResponse = cargoTransportRepository.findPageAfter(companyId, destination,
+                                        cursor.endDate(), cursor.id(), PageRequest.ofSize(20));
+                }
+
+                var headers = new HttpHeaders();
+                if (cargoTransportResponse.hasNext()) {
+                        var last = cargoTransportResponse.getContent().get(cargoTransportResponse.getNumberOfElements() - 1);
+                        headers.add("X-Next-Cursor", new TransportCursor(last.endDate(), last.id()).encode());
+                }
+                return new ResponseEntity<>(cargoTransportResponse.getContent(), headers, HttpStatus.OK);
         }
 
         @Operation(summary = "Create a new cargo transport")
@@ -90,27 +120,21 @@ public class CargoTransportController {
                         @ApiResponse(responseCode = "201", description = "A new cargo transport was created"),
                         @ApiResponse(responseCode = "400", description = "The request body was invalid"),
                         @ApiResponse(responseCode = "404", description = "Some of the referenced entities were not found") })
+        @Transactional
         @PostMapping("/companies/{companyId}/cargotransport")
         public ResponseEntity<CargoTransportResponse> createCargoTransport(
                         @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId,
                         @Parameter(description = "the create parameters") @RequestBody @Valid CreateCargoTransportRequest request) {
-                var references = getReferences(companyId, request.driverId, request.customerId, request.vehicleId);
+                var references = transportReferenceResolver.resolve(companyId, request.driverId,
+                                request.customerId, request.vehicleId);
                 var company = references.getValue0();
                 var driver = references.getValue1();
                 var customer = references.getValue2();
                 var vehicle = references.getValue3();
 
-                if (!vehicle.getType().equals("TRUCK")) {
-                        throw new BadRequestException("cargo transport can be done only by truck");
-                }
-
-                if (request.cargoWeight > vehicle.getCapacity()) {
-                        throw new BadRequestException("cargo weight exceeds vehicle capacity");
-                }
-
-                if (request.startDate.isAfter(request.endDate)) {
-                        throw new BadRequestException("start date cannot be after end date");
-                }
+                validate(vehicle, request.cargoWeight, request.startDate, request.endDate);
+                transportBookingService.check(null, request.driverId, request.vehicleId, request.startDate,
+                                request.endDate);
 
                 var cargoTransport = new CargoTransport(
                                 request.startAddress,
@@ -126,6 +150,7 @@ public class CargoTransportController {
                 cargoTransport.setDriver(driver);
                 cargoTransport.setVehicle(vehicle);
                 var saved = this.cargoTransportRepository.save(cargoTransport);
+                revenueRollupService.add(saved);
                 var response = new CargoTransportResponse(
                                 saved.getId(),
                                 saved.getStartAddress(),
@@ -142,6 +167,84 @@ public class CargoTransportController {
                 return new ResponseEntity<>(response, HttpStatus.CREATED);
         }
 
+        @Operation(summary = "Create many cargo transports at once")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "The batch was processed, see the errors of each item"),
+                        @ApiResponse(responseCode = "400", description = "The batch was too large, or atomic was set and some items were invalid"),
+                        @ApiResponse(responseCode = "404", description = "The company was not found") })
+        @Transactional
+        @PostMapping("/companies/{companyId}/cargotransport/batch")
+        public ResponseEntity<BatchResponse<CargoTransportResponse>> createCargoTransports(
+                        @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId,
+                        @Parameter(description = "reject the whole batch if any item is invalid") @RequestParam(defaultValue = "false") boolean atomic,
+                        @Parameter(description = "the create parameters of each transport") @RequestBody List<CreateCargoTransportRequest> requests) {
+                transportBatchService.checkSize(requests);
+                var valid = requests.stream().filter(Objects::nonNull).toList();
+                var driverIds = valid.stream().map(r -> r.driverId).filter(Objects::nonNull).collect(Collectors.toSet());
+                var vehicleIds = valid.stream().map(r -> r.vehicleId).filter(Objects::nonNull).collect(Collectors.toSet());
+                var references = transportReferenceResolver.resolveAll(companyId, driverIds,
+                                valid.stream().map(r -> r.customerId).filter(Objects::nonNull).collect(Collectors.toSet()),
+                                vehicleIds);
+                var bookings = transportBookingService.load(driverIds, vehicleIds,
+                                valid.stream().map(r -> r.startDate).filter(Objects::nonNull).min(Comparator.naturalOrder())
+                                                .orElse(null),
+                                valid.stream().map(r -> r.endDate).filter(Objects::nonNull).max(Comparator.naturalOrder())
+                                                .orElse(null));
+
+                var response = transportBatchService.create(requests, atomic, request -> {
+                        var reference = references.get(request.driverId, request.customerId, request.vehicleId);
+                        var vehicle = reference.getValue3();
+                        validate(vehicle, request.cargoWeight, request.startDate, request.endDate);
+                        bookings.claim(null, request.driverId, request.vehicleId, request.startDate,
+                                        request.endDate);
+
+                        var transport = new CargoTransport(
+                                        request.startAddress,
+                                        request.endAddress,
+                                        request.startDate,
+                                        request.endDate,
+                                        request.cargoType,
+                                        request.cargoWeight,
+                                        request.price,
+                                        false);
+                        transport.setCompany(reference.getValue0());
+                        transport.setDriver(reference.getValue1());
+                        transport.setCustomer(reference.getValue2());
+                        transport.setVehicle(vehicle);
+                        return transport;
+                }, cargoTransportRepository::saveAll, transport -> {
+                        return new CargoTransportResponse(
+                                        transport.getId(),
+                                        transport.getStartAddress(),
+                                        transport.getEndAddress(),
+                                        transport.getStartDate(),
+                                        transport.getEndDate(),
+                                        transport.getCargoType(),
+                                        transport.getCargoWeight(),
+                                        transport.getPrice(),
+                                        transport.getIsPaid(),
+                                        transport.getCustomer().getId(),
+                                        transport.getVehicle().getId(),
+                                        transport.getDriver().getId());
+                });
+                var status = atomic && response.failed() > 0 ? HttpStatus.BAD_REQUEST : HttpStatus.OK;
+                return new ResponseEntity<>(response, status);
+        }
+
+        @Operation(summary = "Plan pending cargo orders onto the trucks of a company")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "The orders were planned, the ones that fit no free truck are listed as unassigned"),
+                        @ApiResponse(responseCode = "400", description = "The request body was invalid"),
+                        @ApiResponse(responseCode = "404", description = "The company was not found") })
+        @PostMapping("/companies/{companyId}/cargotransport/plan")
+        public ResponseEntity<CargoPlanResponse> planCargoTransports(
+                        @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId,
+                        @Parameter(description = "the pending cargo orders") @RequestBody @Valid PlanCargoRequest request) {
+                companyLookupCache.require(companyId);
+                var response = cargoPlanningService.plan(companyId, request.orders);
+                return new ResponseEntity<>(response, HttpStatus.OK);
+        }
+
         @Operation(summary = "Retrieve a cargo transport by its id")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "The cargo transport was retrieved"),
@@ -170,9 +273,13 @@ public class CargoTransportController {
         @Operation(summary = "Delete a cargo transport")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "204", description = "The cargo transport was deleted or does not exist"), })
+        @Transactional
         @DeleteMapping("/cargotransport/{id}")
         public ResponseEntity<HttpStatus> deleteCargoTransport(@PathVariable("id") Long id) {
-                cargoTransportRepository.deleteById(id);
+                cargoTransportRepository.findById(id).ifPresent(transport -> {
+                        revenueRollupService.remove(transport);
+                        cargoTransportRepository.delete(transport);
+                });
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         }
 
@@ -181,13 +288,15 @@ public class CargoTransportController {
                         @ApiResponse(responseCode = "200", description = "The cargo transport was updated"),
                         @ApiResponse(responseCode = "400", description = "The request parameters were not valid"),
                         @ApiResponse(responseCode = "404", description = "The cargo transport or some of the referenced entities were not found") })
+        @Transactional
         @PutMapping("/cargotransport/{id}")
         public ResponseEntity<CargoTransportResponse> updateCargoTransport(
                         @Parameter(description = "the id of the cargo transport") @PathVariable("id") Long id,
                         @Parameter(description = "the update parameters") @RequestBody @Valid UpdateCargoTransportRequest request) {
                 var cargoTransport = cargoTransportRepository.findById(id)
                                 .orElseThrow(() -> new NotFoundException("cargo transport not found"));
-                var references = getReferences(cargoTransport.getCompany().getId(), request.driverId,
+                var references = transportReferenceResolver.resolve(
+                                cargoTransport.getCompany().getId(), request.driverId,
                                 request.customerId,
                                 request.vehicleId);
                 var company = references.getValue0();
@@ -195,17 +304,9 @@ public class CargoTransportController {
                 var customer = references.getValue2();
                 var vehicle = references.getValue3();
 
-                if (!vehicle.getType().equals("TRUCK")) {
-                        throw new BadRequestException("cargo transport can be done only by truck");
-                }
-
-                if (request.cargoWeight > vehicle.getCapacity()) {
-                        throw new BadRequestException("cargo weight exceeds vehicle capacity");
-                }
-
-                if (request.startDate.isAfter(request.endDate)) {
-                        throw new BadRequestException("start date cannot be after end date");
-                }
+                validate(vehicle, request.cargoWeight, request.startDate, request.endDate);
+                transportBookingService.check(id, request.driverId, request.vehicleId, request.startDate,
+                                request.endDate);
 
                 var update = new CargoTransport(
                                 request.startAddress,
@@ -223,7 +324,9 @@ public class CargoTransportController {
                 update.setDriver(driver);
                 update.setVehicle(vehicle);
 
+                revenueRollupService.remove(cargoTransport);
                 var updated = cargoTransportRepository.save(update);
+                revenueRollupService.add(updated);
                 var response = new CargoTransportResponse(
                                 updated.getId(),
                                 updated.getStartAddress(),
@@ -240,24 +343,17 @@ public class CargoTransportController {
                 return new ResponseEntity<>(response, HttpStatus.OK);
         }
 
-        private Quartet<Company, Driver, Customer, Vehicle> getReferences(Long companyId, Long driverId,
-                        Long customerId,
-                        Long vehicleId) {
-                var company = companyRepository.findById(companyId)
-                                .orElseThrow(() -> new NotFoundException("company not found"));
-
-                var driver = company.getDrivers().stream()
-                                .filter(d -> d.getId() == driverId).findFirst()
-                                .orElseThrow(() -> new BadRequestException("no such driver working for the company"));
-
-                var customer = company.getCustomers().stream()
-                                .filter(c -> c.getId() == customerId).findFirst().orElseThrow(
-                                                () -> new BadRequestException("the company has no such customer"));
+        private static void validate(Vehicle vehicle, Integer cargoWeight, LocalDate startDate, LocalDate endDate) {
+                if (!vehicle.getType().equals("TRUCK")) {
+                        throw new BadRequestException("cargo transport can be done only by truck");
+                }
 
-                var vehicle = company.getVehicles().stream()
-                                .filter(v -> v.getId() == vehicleId).findFirst().orElseThrow(
-                                                () -> new BadRequestException("the company does not own such vehicle"));
+                if (cargoWeight > vehicle.getCapacity()) {
+                        throw new BadRequestException("cargo weight exceeds vehicle capacity");
+                }
 
-                return new Quartet<>(company, driver, customer, vehicle);
+                if (startDate.isAfter(endDate)) {
+                        throw new BadRequestException("start date cannot be after end date");
+                }
         }
 }
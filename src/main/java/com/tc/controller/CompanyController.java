@@ -19,11 +19,13 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.tc.exception.NotFoundException;
 import com.tc.model.Company;
+import com.tc.model.Vehicle;
 import com.tc.repository.CompanyRepository;
 import com.tc.repository.DriverRepository;
 import com.tc.request.CreateCompanyRequest;
 import com.tc.request.UpdateCompanyRequest;
 import com.tc.response.CompanyResponse;
+import com.tc.service.CompanyLookupCache;
 import com.tc.specification.Common;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -31,6 +33,7 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.validation.Valid;
 
 @Tag(name = "Company")
@@ -38,9 +41,14 @@ import jakarta.validation.Valid;
 @RequestMapping("/api")
 public class CompanyController {
     private final CompanyRepository companyRepository;
+    private final CompanyLookupCache companyLookupCache;
+    private final EntityManagerFactory entityManagerFactory;
 
-    public CompanyController(CompanyRepository companyRepository, DriverRepository driverRepository) {
+    public CompanyController(CompanyRepository companyRepository, DriverRepository driverRepository,
+            CompanyLookupCache companyLookupCache, EntityManagerFactory entityManagerFactory) {
         this.companyRepository = companyRepository;
+        this.companyLookupCache = companyLookupCache;
+        this.entityManagerFactory = entityManagerFactory;
     }
 
     @Operation(summary = "Retrieve all companies")
@@ -66,10 +74,7 @@ public class CompanyController {
     @GetMapping("/companies/{id}")
     public ResponseEntity<CompanyResponse> getCompanyById(
             @Parameter(description = "the id of the company") @PathVariable("id") Long id) {
-        var company = companyRepository.findById(id).orElseThrow(() -> new NotFoundException("company not found"));
-        var response = new CompanyResponse(
-                company.getId(),
-                company.getName());
+        var response = companyLookupCache.require(id);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -81,6 +86,7 @@ public class CompanyController {
     public ResponseEntity<CompanyResponse> createCompany(
             @Parameter(description = "the create parameters") @RequestBody @Valid CreateCompanyRequest request) {
         var company = companyRepository.save(new Company(request.name));
+        companyLookupCache.invalidate(company.getId());
 
         var response = new CompanyResponse(
                 company.getId(),
@@ -101,6 +107,7 @@ public class CompanyController {
 
         company.setName(request.name);
         var updated = companyRepository.save(company);
+        companyLookupCache.invalidate(updated.getId());
         var response = new CompanyResponse(
                 updated.getId(),
                 updated.getName());
@@ -114,6 +121,9 @@ public class CompanyController {
     public ResponseEntity<HttpStatus> deleteCompany(
             @Parameter(description = "the id of the company") @PathVariable("id") Long id) {
         companyRepository.deleteById(id);
+        companyLookupCache.invalidate(id);
+        // the database cascades the delete to the company's vehicles behind hibernate's back
+        entityManagerFactory.getCache().evict(Vehicle.class);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 }
@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.tc.exception.BadRequestException;
 import com.tc.exception.NotFoundException;
@@ -23,6 +25,8 @@ import com.tc.request.UpdateCustomerRequest;
 import com.tc.response.CompanyResponse;
 import com.tc.response.CustomerDetailedResponse;
 import com.tc.response.CustomerResponse;
+import com.tc.service.CompanyLookupCache;
+import com.tc.service.CompanyRevisionService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -39,22 +43,32 @@ import jakarta.validation.Valid;
 public class CustomerController {
     private final CompanyRepository companyRepository;
     private final CustomerRepository customerRepository;
+    private final CompanyLookupCache companyLookupCache;
+    private final CompanyRevisionService companyRevisionService;
 
-    public CustomerController(CompanyRepository companyRepository, CustomerRepository customerRepository) {
+    public CustomerController(CompanyRepository companyRepository, CustomerRepository customerRepository,
+            CompanyLookupCache companyLookupCache,
+            CompanyRevisionService companyRevisionService) {
         this.companyRepository = companyRepository;
         this.customerRepository = customerRepository;
+        this.companyLookupCache = companyLookupCache;
+        this.companyRevisionService = companyRevisionService;
     }
 
     @Operation(summary = "Retrieve customers of a company")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "The customers were retrieved"),
+            @ApiResponse(responseCode = "304", description = "The customers did not change since the given ETag"),
             @ApiResponse(responseCode = "404", description = "The company was not found"), })
     @GetMapping("/companies/{companyId}/customers")
     public ResponseEntity<List<CustomerResponse>> getCustomersByCompanyId(
-            @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId) {
-        var company = companyRepository.findById(companyId)
-                .orElseThrow(() -> new NotFoundException("company not found"));
-        var customers = customerRepository.findCustomersByCompaniesId(company.getId());
+            @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId,
+            WebRequest webRequest) {
+        companyLookupCache.require(companyId);
+        if (webRequest.checkNotModified(companyRevisionService.etag(companyId))) {
+            return null;
+        }
+        var customers = customerRepository.findCustomersByCompaniesId(companyId);
         var customersResponse = customers.stream().map(customer -> {
             return new CustomerResponse(customer.getId(), customer.getName());
         }).toList();
@@ -65,6 +79,7 @@ public class CustomerController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "The customer was retrieved"),
             @ApiResponse(responseCode = "404", description = "The customer was not found"), })
+    @Transactional(readOnly = true)
     @GetMapping("/customers/{id}")
     public ResponseEntity<CustomerDetailedResponse> getCustomerById(
             @Parameter(description = "the id of the customer") @PathVariable("id") Long id) {
@@ -83,6 +98,7 @@ public class CustomerController {
             @ApiResponse(responseCode = "201", description = "The customer was created"),
             @ApiResponse(responseCode = "400", description = "The request parameters were not valid"),
             @ApiResponse(responseCode = "404") })
+    @Transactional
     @PostMapping("/companies/{companyId}/customers")
     public ResponseEntity<CustomerResponse> addCustomerToCompany(
             @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId,
@@ -114,6 +130,7 @@ public class CustomerController {
             @ApiResponse(responseCode = "200", description = "The customer was updated"),
             @ApiResponse(responseCode = "400", description = "The request parameters were not valid"),
             @ApiResponse(responseCode = "404", description = "The customer was not found") })
+    @Transactional
     @PutMapping("/customers/{id}")
     public ResponseEntity<CustomerDetailedResponse> updateCustomer(
             @Parameter(description = "the id of the customer") @PathVariable("id") Long id,
@@ -147,6 +164,7 @@ public class CustomerController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "The customer was removed from company customers"),
             @ApiResponse(responseCode = "404", description = "The company was not found") })
+    @Transactional
     @DeleteMapping("/companies/{companyId}/customers/{customerId}")
     public ResponseEntity<HttpStatus> deleteCustomerFromCompany(
             @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId,
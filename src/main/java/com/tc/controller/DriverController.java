@@ -1,12 +1,16 @@
 package com.tc.controller;
 
+import java.util.LinkedHashSet;
 import java.util.List;
-
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -16,10 +20,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.tc.exception.BadRequestException;
 import com.tc.exception.NotFoundException;
 import com.tc.model.Driver;
-import com.tc.repository.CompanyRepository;
 import com.tc.repository.DriverRepository;
 import com.tc.request.CreateDriverRequest;
 import com.tc.request.UpdateDriverRequest;
@@ -28,6 +33,9 @@ import com.tc.response.DriverDetailedResponse;
 import com.tc.response.DriverResponse;
 import com.tc.response.DriverScopedResponse;
 import com.tc.response.QualificationResponse;
+import com.tc.service.CompanyLookupCache;
+import com.tc.service.CompanyRevisionService;
+import com.tc.service.QualificationBitCache;
 import com.tc.specification.Common;
 import com.tc.specification.DriverSpecification;
 
@@ -42,32 +50,62 @@ import jakarta.validation.Valid;
 @RestController
 @RequestMapping("/api")
 public class DriverController {
-    private final CompanyRepository companyRepository;
+    private final CompanyLookupCache companyLookupCache;
+    private final CompanyRevisionService companyRevisionService;
     private final DriverRepository driverRepository;
+    private final QualificationBitCache qualificationBitCache;
 
-    public DriverController(CompanyRepository companyRepository, DriverRepository driverRepository) {
-        this.companyRepository = companyRepository;
+    public DriverController(CompanyLookupCache companyLookupCache, DriverRepository driverRepository,
+            CompanyRevisionService companyRevisionService, QualificationBitCache qualificationBitCache) {
+        this.companyLookupCache = companyLookupCache;
+        this.companyRevisionService = companyRevisionService;
         this.driverRepository = driverRepository;
+        this.qualificationBitCache = qualificationBitCache;
     }
 
     @Operation(summary = "Retrieve drivers of a company")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "The drivers were retrieved"),
+            @ApiResponse(responseCode = "304", description = "The drivers did not change since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "The match parameter was not valid"),
             @ApiResponse(responseCode = "404", description = "The company was not found") })
+    @Transactional(readOnly = true)
     @GetMapping("/companies/{companyId}/drivers")
     public ResponseEntity<List<DriverScopedResponse>> getDriversByCompanyId(
             @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId,
             @Parameter(description = "the qualification of the drivers") @RequestParam(required = false) String qualification,
+            @Parameter(description = "more qualifications of the drivers") @RequestParam(required = false) List<String> qualifications,
+            @Parameter(description = "whether the drivers need all or any of the qualifications") @RequestParam(defaultValue = "all") String match,
             @Parameter(description = "a set properties to sort by, example value name=ASC") @RequestParam(required = false) String sortBy,
-            @Parameter(description = "the requested page") @RequestParam(defaultValue = "0") int page) {
-        var company = companyRepository.findById(companyId)
-                .orElseThrow(() -> new NotFoundException("company not found"));
+            @Parameter(description = "the requested page") @RequestParam(defaultValue = "0") int page,
+            WebRequest webRequest) {
+        if (!match.equals("all") && !match.equals("any")) {
+            throw new BadRequestException("match: must be one of [all, any]");
+        }
+        companyLookupCache.require(companyId);
+        if (webRequest.checkNotModified(companyRevisionService.etag(companyId))) {
+            return null;
+        }
 
-        Specification<Driver> filters = Specification.where(DriverSpecification.hasCompanyId(company.getId()))
-                .and(qualification == null ? null : DriverSpecification.hasQualification(qualification));
+        var types = new LinkedHashSet<String>();
+        if (qualification != null) {
+            types.add(qualification);
+        }
+        if (qualifications != null) {
+            types.addAll(qualifications);
+        }
+        Specification<Driver> filters = Specification.where(DriverSpecification.hasCompanyId(companyId))
+                .and(types.isEmpty() ? null
+                        : DriverSpecification.hasQualifications(types, qualificationBitCache.resolve(types),
+                                match.equals("all")));
         Sort sort = sortBy == null ? Sort.unsorted() : Common.sortBy(sortBy);
-        var drivers = driverRepository.findAll(filters, PageRequest.of(page, 20, sort));
-        var driversResponse = drivers.stream().map(driver -> {
+        // one query for the page and one for its qualifications, without a count query
+        var ids = driverRepository.findSlice(filters, PageRequest.of(page, 20, sort)).map(Driver::getId)
+                .getContent();
+        var drivers = ids.isEmpty() ? Map.<Long, Driver>of()
+                : driverRepository.fetchQualifications(ids).stream()
+                        .collect(Collectors.toMap(Driver::getId, Function.identity(), (a, b) -> a));
+        var driversResponse = ids.stream().map(drivers::get).map(driver -> {
             return new DriverScopedResponse(driver.getId(), driver.getFirstName(), driver.getLastName(),
                     driver.getSalary(), driver.getQualifications().stream().map(q -> {
                         return new QualificationResponse(q.getId(), q.getType());
@@ -81,12 +119,12 @@ public class DriverController {
             @ApiResponse(responseCode = "200", description = "The driver was hired"),
             @ApiResponse(responseCode = "400", description = "The request parameters were not valid"),
             @ApiResponse(responseCode = "404", description = "The company was not found") })
+    @Transactional
     @PostMapping("/companies/{companyId}/drivers")
     public ResponseEntity<DriverResponse> hireDriver(
             @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId,
             @Parameter(description = "the create parameters") @RequestBody @Valid CreateDriverRequest request) {
-        var company = companyRepository.findById(companyId)
-                .orElseThrow(() -> new NotFoundException("company not found"));
+        var company = companyLookupCache.requireReference(companyId);
         var update = new Driver(request.firstName, request.lastName, request.salary);
         update.setCompany(company);
         var driver = driverRepository.save(update);
@@ -100,6 +138,7 @@ public class DriverController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "The driver was retrieved"),
             @ApiResponse(responseCode = "404", description = "The driver was not found") })
+    @Transactional(readOnly = true)
     @GetMapping("/drivers/{id}")
     public ResponseEntity<DriverDetailedResponse> getDriverById(
             @Parameter(description = "the id of the driver") @PathVariable("id") Long id) {
@@ -123,6 +162,7 @@ public class DriverController {
             @ApiResponse(responseCode = "200", description = "The driver was updated"),
             @ApiResponse(responseCode = "400", description = "The request parameters were not valid"),
             @ApiResponse(responseCode = "404", description = "The driver was not found") })
+    @Transactional
     @PutMapping("/drivers/{id}")
     public ResponseEntity<DriverDetailedResponse> updateDriver(
             @Parameter(description = "the id of the driver") @PathVariable("id") Long id,
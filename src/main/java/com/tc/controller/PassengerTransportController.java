@@ -1,12 +1,17 @@
 package com.tc.controller;
 
+import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
-import org.javatuples.Quartet;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -16,20 +21,24 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.tc.exception.BadRequestException;
 import com.tc.exception.NotFoundException;
-import com.tc.model.Company;
-import com.tc.model.Customer;
-import com.tc.model.Driver;
 import com.tc.model.PassengerTransport;
 import com.tc.model.Vehicle;
-import com.tc.repository.CompanyRepository;
 import com.tc.repository.PassengerTransportRepository;
 import com.tc.request.CreatePassengerTransportRequest;
+import com.tc.request.TransportCursor;
 import com.tc.request.UpdatePassengerTransportRequest;
+import com.tc.response.BatchResponse;
 import com.tc.response.PassengerTransportResponse;
-import com.tc.specification.TransportSpecification;
+import com.tc.service.CompanyLookupCache;
+import com.tc.service.CompanyRevisionService;
+import com.tc.service.RevenueRollupService;
+import com.tc.service.TransportBatchService;
+import com.tc.service.TransportBookingService;
+import com.tc.service.TransportReferenceResolver;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -42,47 +51,62 @@ import jakarta.validation.Valid;
 @RestController
 @RequestMapping("/api")
 public class PassengerTransportController {
-        private final CompanyRepository companyRepository;
+        private final CompanyLookupCache companyLookupCache;
+        private final CompanyRevisionService companyRevisionService;
         private final PassengerTransportRepository passengerTransportRepository;
+        private final RevenueRollupService revenueRollupService;
+        private final TransportReferenceResolver transportReferenceResolver;
+        private final TransportBatchService transportBatchService;
+        private final TransportBookingService transportBookingService;
 
-        public PassengerTransportController(CompanyRepository companyRepository,
-                        PassengerTransportRepository passengerTransportRepository) {
-                this.companyRepository = companyRepository;
+        public PassengerTransportController(CompanyLookupCache companyLookupCache,
+                        PassengerTransportRepository passengerTransportRepository,
+                        RevenueRollupService revenueRollupService,
+                        TransportReferenceResolver transportReferenceResolver,
+                        TransportBatchService transportBatchService,
+                        CompanyRevisionService companyRevisionService,
+                        TransportBookingService transportBookingService) {
+                this.companyLookupCache = companyLookupCache;
+                this.companyRevisionService = companyRevisionService;
                 this.passengerTransportRepository = passengerTransportRepository;
+                this.revenueRollupService = revenueRollupService;
+                this.transportReferenceResolver = transportReferenceResolver;
+                this.transportBatchService = transportBatchService;
+                this.transportBookingService = transportBookingService;
         }
 
         @Operation(summary = "Retrieve passenger transports of a company")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "The passenger transports were retrieved"),
+                        @ApiResponse(responseCode = "304", description = "The passenger transports did not change since the given ETag"),
                         @ApiResponse(responseCode = "404", description = "The company was not found"), })
         @GetMapping("/companies/{companyId}/passengertransport")
         public ResponseEntity<List<PassengerTransportResponse>> getPassengerTransportByCompanyId(
                         @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId,
                         @Parameter(description = "the transport destination") @RequestParam(required = false) String destination,
-                        @Parameter(description = "the requested page") @RequestParam(defaultValue = "0") int page) {
-                var company = companyRepository.findById(companyId)
-                                .orElseThrow(() -> new NotFoundException("company not found"));
-                Specification<PassengerTransport> hasCompanyId = TransportSpecification.hasCompanyId(company.getId());
-                Specification<PassengerTransport> filters = Specification
-                                .where(hasCompanyId)
-                                .and(destination == null ? null : TransportSpecification.hasDestination(destination));
+                        @Parameter(description = "the requested page") @RequestParam(defaultValue = "0") int page,
+                        @Parameter(description = "the X-Next-Cursor of the previous page, takes precedence over page") @RequestParam(required = false) String after,
+                        WebRequest webRequest) {
+                companyLookupCache.require(companyId);
+                if (webRequest.checkNotModified(companyRevisionService.etag(companyId))) {
+                        return null;
+                }
+                Slice<PassengerTransportResponse> passengerTransportResponse;
+                if (after == null) {
+                        passengerTransportResponse = passengerTransportRepository.findPage(companyId, destination,
+                                        PageRequest.of(page, 20));
+                } else {
+                        var cursor = TransportCursor.decode(after);
+                        passengerTransportResponse = passengerTransportRepository.findPageAfter(companyId, destination,
+                                        cursor.endDate(), cursor.id(), PageRequest.ofSize(20));
+                }
 
-                var passengerTransport = passengerTransportRepository.findAll(filters, PageRequest.of(page, 20));
-                var passengerTransportResponse = passengerTransport.stream().map(transport -> {
-                        return new PassengerTransportResponse(
-                                        transport.getId(),
-                                        transport.getStartAddress(),
-                                        transport.getEndAddress(),
-                                        transport.getStartDate(),
-                                        transport.getEndDate(),
-                                        transport.getNumberOfPassengers(),
-                                        transport.getPrice(),
-                                        transport.getIsPaid(),
-                                        transport.getCustomer().getId(),
-                                        transport.getVehicle().getId(),
-                                        transport.getDriver().getId());
-                }).toList();
-                return new ResponseEntity<>(passengerTransportResponse, HttpStatus.OK);
+                var headers = new HttpHeaders();
+                if (passengerTransportResponse.hasNext()) {
+                        var last = passengerTransportResponse.getContent().get(passengerTransportResponse.getNumberOfElements() - 1);
+                        headers.add("X-Next-Cursor", new TransportCursor(last.endDate(), last.id()).encode());
+                }
+                return new ResponseEntity<>(passengerTransportResponse.getContent(), headers, HttpStatus.OK);
         }
 
         @Operation(summary = "Create a new passenger transport")
@@ -90,27 +114,21 @@ public class PassengerTransportController {
                         @ApiResponse(responseCode = "201", description = "A new passenger transport was created"),
                         @ApiResponse(responseCode = "400", description = "The request body was invalid"),
                         @ApiResponse(responseCode = "404", description = "The company, driver, customer or vehicle was not found") })
+        @Transactional
         @PostMapping("/companies/{companyId}/passengertransport")
         public ResponseEntity<PassengerTransportResponse> createPassengerTransport(
                         @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId,
                         @Parameter(description = "the create parameters") @RequestBody @Valid CreatePassengerTransportRequest request) {
-                var references = getReferences(companyId, request.driverId, request.customerId, request.vehicleId);
+                var references = transportReferenceResolver.resolve(companyId, request.driverId,
+                                request.customerId, request.vehicleId);
                 var company = references.getValue0();
                 var driver = references.getValue1();
                 var customer = references.getValue2();
                 var vehicle = references.getValue3();
 
-                if (!vehicle.getType().equals("BUS")) {
-                        throw new BadRequestException("passenger transport can be done only by bus");
-                }
-
-                if (request.numberOfPassengers > vehicle.getCapacity()) {
-                        throw new BadRequestException("vehicle capacity is not enough to carry all passengers");
-                }
-
-                if (request.startDate.isAfter(request.endDate)) {
-                        throw new BadRequestException("start date cannot be after end date");
-                }
+                validate(vehicle, request.numberOfPassengers, request.startDate, request.endDate);
+                transportBookingService.check(null, request.driverId, request.vehicleId, request.startDate,
+                                request.endDate);
 
                 var passengerTransport = new PassengerTransport(
                                 request.startAddress,
@@ -126,6 +144,7 @@ public class PassengerTransportController {
                 passengerTransport.setDriver(driver);
                 passengerTransport.setVehicle(vehicle);
                 var saved = this.passengerTransportRepository.save(passengerTransport);
+                revenueRollupService.add(saved);
                 var response = new PassengerTransportResponse(
                                 saved.getId(),
                                 saved.getStartAddress(),
@@ -141,6 +160,68 @@ public class PassengerTransportController {
                 return new ResponseEntity<>(response, HttpStatus.CREATED);
         }
 
+        @Operation(summary = "Create many passenger transports at once")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "The batch was processed, see the errors of each item"),
+                        @ApiResponse(responseCode = "400", description = "The batch was too large, or atomic was set and some items were invalid"),
+                        @ApiResponse(responseCode = "404", description = "The company was not found") })
+        @Transactional
+        @PostMapping("/companies/{companyId}/passengertransport/batch")
+        public ResponseEntity<BatchResponse<PassengerTransportResponse>> createPassengerTransports(
+                        @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId,
+                        @Parameter(description = "reject the whole batch if any item is invalid") @RequestParam(defaultValue = "false") boolean atomic,
+                        @Parameter(description = "the create parameters of each transport") @RequestBody List<CreatePassengerTransportRequest> requests) {
+                transportBatchService.checkSize(requests);
+                var valid = requests.stream().filter(Objects::nonNull).toList();
+                var driverIds = valid.stream().map(r -> r.driverId).filter(Objects::nonNull).collect(Collectors.toSet());
+                var vehicleIds = valid.stream().map(r -> r.vehicleId).filter(Objects::nonNull).collect(Collectors.toSet());
+                var references = transportReferenceResolver.resolveAll(companyId, driverIds,
+                                valid.stream().map(r -> r.customerId).filter(Objects::nonNull).collect(Collectors.toSet()),
+                                vehicleIds);
+                var bookings = transportBookingService.load(driverIds, vehicleIds,
+                                valid.stream().map(r -> r.startDate).filter(Objects::nonNull).min(Comparator.naturalOrder())
+                                                .orElse(null),
+                                valid.stream().map(r -> r.endDate).filter(Objects::nonNull).max(Comparator.naturalOrder())
+                                                .orElse(null));
+
+                var response = transportBatchService.create(requests, atomic, request -> {
+                        var reference = references.get(request.driverId, request.customerId, request.vehicleId);
+                        var vehicle = reference.getValue3();
+                        validate(vehicle, request.numberOfPassengers, request.startDate, request.endDate);
+                        bookings.claim(null, request.driverId, request.vehicleId, request.startDate,
+                                        request.endDate);
+
+                        var transport = new PassengerTransport(
+                                        request.startAddress,
+                                        request.endAddress,
+                                        request.startDate,
+                                        request.endDate,
+                                        request.numberOfPassengers,
+                                        request.price,
+                                        false);
+                        transport.setCompany(reference.getValue0());
+                        transport.setDriver(reference.getValue1());
+                        transport.setCustomer(reference.getValue2());
+                        transport.setVehicle(vehicle);
+                        return transport;
+                }, passengerTransportRepository::saveAll, transport -> {
+                        return new PassengerTransportResponse(
+                                        transport.getId(),
+                                        transport.getStartAddress(),
+                                        transport.getEndAddress(),
+                                        transport.getStartDate(),
+                                        transport.getEndDate(),
+                                        transport.getNumberOfPassengers(),
+                                        transport.getPrice(),
+                                        transport.getIsPaid(),
+                                        transport.getCustomer().getId(),
+                                        transport.getVehicle().getId(),
+                                        transport.getDriver().getId());
+                });
+                var status = atomic && response.failed() > 0 ? HttpStatus.BAD_REQUEST : HttpStatus.OK;
+                return new ResponseEntity<>(response, status);
+        }
+
         @Operation(summary = "Retrieve a passenger transport by its id")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "The passenger transport was retrieved"),
@@ -168,9 +249,13 @@ public class PassengerTransportController {
         @Operation(summary = "Delete a passenger transport")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "204", description = "The passenger transport was deleted or does not exist"), })
+        @Transactional
         @DeleteMapping("/passengertransport/{id}")
         public ResponseEntity<HttpStatus> deletePassengerTransport(@PathVariable("id") Long id) {
-                passengerTransportRepository.deleteById(id);
+                passengerTransportRepository.findById(id).ifPresent(transport -> {
+                        revenueRollupService.remove(transport);
+                        passengerTransportRepository.delete(transport);
+                });
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         }
 
@@ -179,13 +264,15 @@ public class PassengerTransportController {
                         @ApiResponse(responseCode = "200", description = "The passenger transport was updated"),
                         @ApiResponse(responseCode = "400", description = "The request parameters were not valid"),
                         @ApiResponse(responseCode = "404", description = "The passenger transport or some of the referenced entities were not found") })
+        @Transactional
         @PutMapping("/passengertransport/{id}")
         public ResponseEntity<PassengerTransportResponse> updatePassengerTransport(
                         @Parameter(description = "the id of the passenger transport") @PathVariable("id") Long id,
                         @Parameter(description = "the update parameters") @RequestBody @Valid UpdatePassengerTransportRequest request) {
                 var passengerTransport = passengerTransportRepository.findById(id)
                                 .orElseThrow(() -> new NotFoundException("passenger transport not found"));
-                var reference = getReferences(passengerTransport.getCompany().getId(), request.driverId,
+                var reference = transportReferenceResolver.resolve(
+                                passengerTransport.getCompany().getId(), request.driverId,
                                 request.customerId,
                                 request.vehicleId);
                 var company = reference.getValue0();
@@ -193,17 +280,9 @@ public class PassengerTransportController {
                 var customer = reference.getValue2();
                 var vehicle = reference.getValue3();
 
-                if (!vehicle.getType().equals("BUS")) {
-                        throw new BadRequestException("passenger transport can be done only by bus");
-                }
-
-                if (request.numberOfPassengers > vehicle.getCapacity()) {
-                        throw new BadRequestException("vehicle capacity is not enough to carry all passengers");
-                }
-
-                if (request.startDate.isAfter(request.endDate)) {
-                        throw new BadRequestException("start date cannot be after end date");
-                }
+                validate(vehicle, request.numberOfPassengers, request.startDate, request.endDate);
+                transportBookingService.check(id, request.driverId, request.vehicleId, request.startDate,
+                                request.endDate);
 
                 var update = new PassengerTransport(
                                 request.startAddress,
@@ -220,7 +299,9 @@ public class PassengerTransportController {
                 update.setDriver(driver);
                 update.setVehicle(vehicle);
 
+                revenueRollupService.remove(passengerTransport);
                 var updated = passengerTransportRepository.save(update);
+                revenueRollupService.add(updated);
                 var response = new PassengerTransportResponse(
                                 updated.getId(),
                                 updated.getStartAddress(),
@@ -236,24 +317,17 @@ public class PassengerTransportController {
                 return new ResponseEntity<>(response, HttpStatus.OK);
         }
 
-        private Quartet<Company, Driver, Customer, Vehicle> getReferences(Long companyId, Long driverId,
-                        Long customerId,
-                        Long vehicleId) {
-                var company = companyRepository.findById(companyId)
-                                .orElseThrow(() -> new NotFoundException("company not found"));
-
-                var driver = company.getDrivers().stream()
-                                .filter(d -> d.getId() == driverId).findFirst()
-                                .orElseThrow(() -> new BadRequestException("no such driver working for the company"));
-
-                var customer = company.getCustomers().stream()
-                                .filter(c -> c.getId() == customerId).findFirst().orElseThrow(
-                                                () -> new BadRequestException("the company has no such customer"));
+        private static void validate(Vehicle vehicle, Integer numberOfPassengers, LocalDate startDate, LocalDate endDate) {
+                if (!vehicle.getType().equals("BUS")) {
+                        throw new BadRequestException("passenger transport can be done only by bus");
+                }
 
-                var vehicle = company.getVehicles().stream()
-                                .filter(v -> v.getId() == vehicleId).findFirst().orElseThrow(
-                                                () -> new BadRequestException("the company does not own such vehicle"));
+                if (numberOfPassengers > vehicle.getCapacity()) {
+                        throw new BadRequestException("vehicle capacity is not enough to carry all passengers");
+                }
 
-                return new Quartet<>(company, driver, customer, vehicle);
+                if (startDate.isAfter(endDate)) {
+                        throw new BadRequestException("start date cannot be after end date");
+                }
         }
 }
@@ -2,9 +2,9 @@ package com.tc.controller;
 
 import java.util.List;
 
-import org.springframework.data.domain.Example;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -14,11 +14,14 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.tc.exception.NotFoundException;
-import com.tc.model.Qualification;
 import com.tc.repository.DriverRepository;
 import com.tc.repository.QualificationRepository;
+import com.tc.request.AssignQualificationsRequest;
 import com.tc.request.CreateQualificationRequest;
+import com.tc.response.AssignQualificationsResponse;
 import com.tc.response.QualificationResponse;
+import com.tc.service.CompanyLookupCache;
+import com.tc.service.QualificationService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -33,10 +36,15 @@ import jakarta.validation.Valid;
 public class QualificationController {
     private final QualificationRepository qualificationRepository;
     private final DriverRepository driverRepository;
+    private final QualificationService qualificationService;
+    private final CompanyLookupCache companyLookupCache;
 
-    public QualificationController(DriverRepository driverRepository, QualificationRepository qualificationRepository) {
+    public QualificationController(DriverRepository driverRepository, QualificationRepository qualificationRepository,
+            QualificationService qualificationService, CompanyLookupCache companyLookupCache) {
         this.driverRepository = driverRepository;
         this.qualificationRepository = qualificationRepository;
+        this.qualificationService = qualificationService;
+        this.companyLookupCache = companyLookupCache;
     }
 
     @Operation(summary = "Retrieve all qualifications")
@@ -88,32 +96,29 @@ public class QualificationController {
     public ResponseEntity<QualificationResponse> createQualification(
             @Parameter(description = "the id of the driver") @PathVariable("driverId") Long driverId,
             @Parameter(description = "the create parameters") @RequestBody @Valid CreateQualificationRequest request) {
-        var driver = driverRepository.findById(driverId)
-                .orElseThrow(() -> new NotFoundException("driver not found"));
-        var qualificationType = request.type;
-        Qualification exQualification = new Qualification(qualificationType);
-        Example<Qualification> example = Example.of(exQualification);
-
-        var qualificationOpt = qualificationRepository.findOne(example);
-        if (qualificationOpt.isPresent()) {
-            var qualification = qualificationOpt.get();
-            driver.addQualification(qualification);
-            driverRepository.save(driver);
-            var response = new QualificationResponse(qualification.getId(), qualification.getType());
-            return new ResponseEntity<>(response, HttpStatus.CREATED);
-        }
-
-        var qualification = new Qualification(qualificationType);
-        driver.addQualification(qualification);
-        qualificationRepository.save(qualification);
-        var response = new QualificationResponse(qualification.getId(), qualification.getType());
+        var response = qualificationService.assign(driverId, request.type);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Assign qualifications to drivers of a company")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The qualifications were assigned, missing ones were created"),
+            @ApiResponse(responseCode = "400", description = "The request parameters were not valid, or some drivers do not work for the company"),
+            @ApiResponse(responseCode = "404", description = "The company was not found") })
+    @PostMapping("/companies/{companyId}/drivers/qualifications")
+    public ResponseEntity<AssignQualificationsResponse> assignQualifications(
+            @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId,
+            @Parameter(description = "the drivers and the qualification types to assign to each of them") @RequestBody @Valid AssignQualificationsRequest request) {
+        companyLookupCache.require(companyId);
+        var response = qualificationService.assignAll(companyId, request.driverIds, request.types);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @Operation(summary = "Delete a qualification of a driver")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "The qualification was removed from the driver's qualifications"),
             @ApiResponse(responseCode = "404", description = "The driver was not found") })
+    @Transactional
     @DeleteMapping("/drivers/{driverId}/qualifications/{qualificationId}")
     public ResponseEntity<HttpStatus> deleteQualification(
             @Parameter(description = "the id of the driver") @PathVariable("driverId") Long driverId,
@@ -0,0 +1,140 @@
+package com.tc.controller;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.tc.exception.BadRequestException;
+import com.tc.repository.TransportQueryRepository;
+import com.tc.request.SettleTransportsRequest;
+import com.tc.request.TransportCursor;
+import com.tc.response.SettleTransportsResponse;
+import com.tc.response.TransportResponse;
+import com.tc.service.CompanyLookupCache;
+import com.tc.service.CompanyRevisionService;
+import com.tc.service.TransportExportService;
+import com.tc.service.TransportSettlementService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+@Tag(name = "Transport")
+@RestController
+@RequestMapping("/api")
+public class TransportController {
+    private final CompanyLookupCache companyLookupCache;
+    private final CompanyRevisionService companyRevisionService;
+    private final TransportQueryRepository transportQueryRepository;
+    private final TransportExportService transportExportService;
+    private final TransportSettlementService transportSettlementService;
+
+    public TransportController(CompanyLookupCache companyLookupCache,
+            TransportQueryRepository transportQueryRepository, TransportExportService transportExportService,
+            TransportSettlementService transportSettlementService,
+            CompanyRevisionService companyRevisionService) {
+        this.companyLookupCache = companyLookupCache;
+        this.companyRevisionService = companyRevisionService;
+        this.transportQueryRepository = transportQueryRepository;
+        this.transportExportService = transportExportService;
+        this.transportSettlementService = transportSettlementService;
+    }
+
+    @Operation(summary = "Retrieve cargo and passenger transports of a company ordered by end date")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The transports were retrieved"),
+            @ApiResponse(responseCode = "304", description = "The transports did not change since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "The cursor is not valid"),
+            @ApiResponse(responseCode = "404", description = "The company was not found") })
+    @GetMapping("/companies/{companyId}/transports")
+    public ResponseEntity<List<TransportResponse>> getTransportsByCompanyId(
+            @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId,
+            @Parameter(description = "the transport destination") @RequestParam(required = false) String destination,
+            @Parameter(description = "the requested page") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "the X-Next-Cursor of the previous page, takes precedence over page") @RequestParam(required = false) String after,
+            WebRequest webRequest) {
+        companyLookupCache.require(companyId);
+        if (webRequest.checkNotModified(companyRevisionService.etag(companyId))) {
+            return null;
+        }
+        var cursor = after == null ? null : TransportCursor.decode(after);
+        var transports = transportQueryRepository.findPage(companyId, destination, cursor,
+                PageRequest.of(cursor == null ? page : 0, 20));
+
+        var headers = new HttpHeaders();
+        if (transports.hasNext()) {
+            var last = transports.getContent().get(transports.getNumberOfElements() - 1);
+            headers.add("X-Next-Cursor", new TransportCursor(last.endDate(), last.id()).encode());
+        }
+        return new ResponseEntity<>(transports.getContent(), headers, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Export all cargo and passenger transports of a company")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The transports are being streamed"),
+            @ApiResponse(responseCode = "400", description = "The export format is not supported"),
+            @ApiResponse(responseCode = "404", description = "The company was not found") })
+    @GetMapping("/companies/{companyId}/transports/export")
+    public ResponseEntity<StreamingResponseBody> exportTransports(
+            @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId,
+            @Parameter(description = "the export format, one of [ndjson, csv]") @RequestParam(defaultValue = "ndjson") String format) {
+        companyLookupCache.require(companyId);
+        var exportFormat = TransportExportService.Format.parse(format);
+
+        StreamingResponseBody body = out -> transportExportService.export(companyId, exportFormat, out);
+        var headers = new HttpHeaders();
+        headers.setContentType(exportFormat.getMediaType());
+        headers.add(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"transports-" + companyId + "." + exportFormat.getExtension() + "\"");
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Mark cargo and passenger transports of a company as paid, either by id or by end date range")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The number of transports that were marked as paid per type"),
+            @ApiResponse(responseCode = "400", description = "The settle parameters are invalid"),
+            @ApiResponse(responseCode = "404", description = "The company was not found") })
+    @PostMapping("/companies/{companyId}/transports/settle")
+    public ResponseEntity<SettleTransportsResponse> settleTransports(
+            @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId,
+            @Parameter(description = "the settle parameters") @RequestBody @Valid SettleTransportsRequest request) {
+        companyLookupCache.require(companyId);
+
+        var byIds = request.cargoTransportIds != null || request.passengerTransportIds != null;
+        var byEndDate = request.fromDate != null || request.toDate != null;
+        if (byIds == byEndDate) {
+            throw new BadRequestException("either transport ids or a fromDate and toDate must be given");
+        }
+
+        SettleTransportsResponse response;
+        if (byIds) {
+            response = transportSettlementService.settleByIds(companyId, request.cargoTransportIds,
+                    request.passengerTransportIds);
+        } else {
+            if (request.fromDate == null || request.toDate == null) {
+                throw new BadRequestException("fromDate, toDate: must both be given");
+            }
+            if (request.fromDate.isAfter(request.toDate)) {
+                throw new BadRequestException("toDate: must not be before fromDate");
+            }
+            response = transportSettlementService.settleByEndDate(companyId, request.fromDate,
+                    request.toDate);
+        }
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,16 +13,18 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.tc.exception.NotFoundException;
 import com.tc.model.Vehicle;
-import com.tc.repository.CompanyRepository;
 import com.tc.repository.VehicleRepository;
 import com.tc.request.CreateVehicleRequest;
 import com.tc.request.UpdateVehicleRequest;
 import com.tc.response.CompanyResponse;
 import com.tc.response.VehicleDetailedResponse;
 import com.tc.response.VehicleResponse;
+import com.tc.service.CompanyLookupCache;
+import com.tc.service.CompanyRevisionService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -34,24 +37,31 @@ import jakarta.validation.Valid;
 @RestController
 @RequestMapping("/api")
 public class VehicleController {
-    private final CompanyRepository companyRepository;
+    private final CompanyLookupCache companyLookupCache;
+    private final CompanyRevisionService companyRevisionService;
     private final VehicleRepository vehicleRepository;
 
-    public VehicleController(CompanyRepository companyRepository, VehicleRepository vehicleRepository) {
-        this.companyRepository = companyRepository;
+    public VehicleController(CompanyLookupCache companyLookupCache, VehicleRepository vehicleRepository,
+            CompanyRevisionService companyRevisionService) {
+        this.companyLookupCache = companyLookupCache;
+        this.companyRevisionService = companyRevisionService;
         this.vehicleRepository = vehicleRepository;
     }
 
     @Operation(summary = "Retrieve vehicles of a company")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "The vehicles were retrieved"),
+            @ApiResponse(responseCode = "304", description = "The vehicles did not change since the given ETag"),
             @ApiResponse(responseCode = "404", description = "The company was not found") })
     @GetMapping("/companies/{companyId}/vehicles")
     public ResponseEntity<List<VehicleResponse>> getVehiclesByCompanyId(
-            @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId) {
-        var company = companyRepository.findById(companyId)
-                .orElseThrow(() -> new NotFoundException("company not found"));
-        List<Vehicle> vehicles = vehicleRepository.findByCompanyId(company.getId());
+            @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId,
+            WebRequest webRequest) {
+        companyLookupCache.require(companyId);
+        if (webRequest.checkNotModified(companyRevisionService.etag(companyId))) {
+            return null;
+        }
+        List<Vehicle> vehicles = vehicleRepository.findByCompanyId(companyId);
         var vehiclesResponse = vehicles.stream().map(vehicle -> {
             return new VehicleResponse(vehicle.getId(), vehicle.getRegistration(), vehicle.getType(),
                     vehicle.getCapacity());
@@ -64,12 +74,12 @@ public class VehicleController {
             @ApiResponse(responseCode = "201", description = "The vehicle was registered"),
             @ApiResponse(responseCode = "400", description = "The request parameters were not valid"),
             @ApiResponse(responseCode = "404", description = "The company was not found") })
+    @Transactional
     @PostMapping("/companies/{companyId}/vehicles")
     public ResponseEntity<VehicleResponse> registerVehicle(
             @Parameter(description = "the id of the company") @PathVariable("companyId") Long companyId,
             @Parameter(description = "the create parameretes") @RequestBody @Valid CreateVehicleRequest request) {
-        var company = companyRepository.findById(companyId)
-                .orElseThrow(() -> new NotFoundException("company not found"));
+        var company = companyLookupCache.requireReference(companyId);
 
         var vehicle = new Vehicle(request.registration, request.type, request.capacity);
         vehicle.setCompany(company);
@@ -85,6 +95,7 @@ public class VehicleController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "The vehicle was retrieved"),
             @ApiResponse(responseCode = "404", description = "The vehicle was not found") })
+    @Transactional(readOnly = true)
     @GetMapping("/vehicles/{id}")
     public ResponseEntity<VehicleDetailedResponse> getVehicleById(
             @Parameter(description = "the id of the vehicle") @PathVariable("id") Long id) {
@@ -100,6 +111,7 @@ public class VehicleController {
             @ApiResponse(responseCode = "200", description = "The vehicle was updated"),
             @ApiResponse(responseCode = "400", description = "The request parameters were not valid"),
             @ApiResponse(responseCode = "404", description = "The vehicle was not found") })
+    @Transactional
     @PutMapping("/vehicles/{id}")
     public ResponseEntity<VehicleDetailedResponse> updateVehicle(
             @Parameter(description = "the id of the vehicle") @PathVariable("id") Long id,
@@ -0,0 +1,14 @@
+package com.tc.exception;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Thrown when a request could not be admitted to the database in time. It is
+ * raised from inside the JDBC layer and usually reaches the controllers
+ * wrapped in a data access exception.
+ */
+public class DatabaseBusyException extends SQLTransientConnectionException {
+    public DatabaseBusyException(String message) {
+        super(message);
+    }
+}
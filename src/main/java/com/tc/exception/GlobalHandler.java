@@ -1,11 +1,13 @@
 package com.tc.exception;
 
+import java.sql.SQLException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +18,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 @RestControllerAdvice
 public class GlobalHandler {
+    private static final String EXCLUSION_VIOLATION = "23P01";
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, List<String>>> handleValidationErrors(MethodArgumentNotValidException ex) {
@@ -36,6 +39,36 @@ public class GlobalHandler {
         return new ResponseEntity<>(getErrorsMap(errors), new HttpHeaders(), HttpStatus.BAD_REQUEST);
     }
 
+    // also matches when it is the cause of the data access exception that reached the controller
+    @ExceptionHandler(DatabaseBusyException.class)
+    public ResponseEntity<Map<String, List<String>>> handleDatabaseBusyException(DatabaseBusyException ex) {
+        List<String> errors = Collections.singletonList(ex.getMessage());
+        var headers = new HttpHeaders();
+        headers.add(HttpHeaders.RETRY_AFTER, "1");
+        return new ResponseEntity<>(getErrorsMap(errors), headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    // a concurrent write booked the driver or vehicle after the overlap pre-check
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, List<String>>> handleDataIntegrityViolationException(
+            DataIntegrityViolationException ex) {
+        var cause = ex.getMostSpecificCause();
+        if (!(cause instanceof SQLException sqlException) || !EXCLUSION_VIOLATION.equals(sqlException.getSQLState())
+                || cause.getMessage() == null) {
+            throw ex;
+        }
+        String message;
+        if (cause.getMessage().contains("transport_booking_driver_overlap")) {
+            message = "driver is already booked for an overlapping transport";
+        } else if (cause.getMessage().contains("transport_booking_vehicle_overlap")) {
+            message = "vehicle is already booked for an overlapping transport";
+        } else {
+            throw ex;
+        }
+        List<String> errors = Collections.singletonList(message);
+        return new ResponseEntity<>(getErrorsMap(errors), new HttpHeaders(), HttpStatus.BAD_REQUEST);
+    }
+
     private Map<String, List<String>> getErrorsMap(List<String> errors) {
         Map<String, List<String>> errorResponse = new HashMap<>();
         errorResponse.put("errors", errors);
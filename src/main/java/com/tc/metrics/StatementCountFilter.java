@@ -0,0 +1,60 @@
+package com.tc.metrics;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records how many SQL statements each request handled by a controller ran,
+ * as a distribution per method and URI template, and warns about requests
+ * that run more statements than the budget, which usually means an N+1 query
+ * pattern.
+ */
+public class StatementCountFilter extends OncePerRequestFilter {
+    public static final String METRIC_NAME = "tc.http.server.requests.statements";
+
+    private static final Logger log = LoggerFactory.getLogger(StatementCountFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int budget;
+
+    public StatementCountFilter(MeterRegistry meterRegistry, int budget) {
+        this.meterRegistry = meterRegistry;
+        this.budget = budget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var count = StatementCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            count.close();
+            var statements = count.getStatements();
+            var uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (uri != null) {
+                DistributionSummary.builder(METRIC_NAME)
+                        .description("SQL statements run by Hibernate per request")
+                        .baseUnit("statements")
+                        .tags("method", request.getMethod(), "uri", uri.toString())
+                        .register(meterRegistry)
+                        .record(statements);
+            }
+            if (statements > budget) {
+                log.warn("{} {} ran {} SQL statements, over the budget of {}", request.getMethod(),
+                        uri == null ? request.getRequestURI() : uri, statements, budget);
+            }
+        }
+    }
+}
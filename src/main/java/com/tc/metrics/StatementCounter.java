@@ -0,0 +1,65 @@
+package com.tc.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a
+ * {@link Count} is open. Counts nest: statements counted by an inner count
+ * are added to the enclosing one when it closes. Statements issued through a
+ * {@code JdbcTemplate} do not pass through Hibernate and are not counted.
+ */
+public class StatementCounter implements StatementInspector {
+    private static final ThreadLocal<Count> CURRENT = new ThreadLocal<>();
+
+    public static final class Count implements AutoCloseable {
+        private final Count parent;
+        private int statements;
+        private boolean closed;
+
+        private Count(Count parent) {
+            this.parent = parent;
+        }
+
+        public int getStatements() {
+            return this.statements;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                parent.statements += statements;
+                CURRENT.set(parent);
+            }
+        }
+    }
+
+    public static Count start() {
+        var count = new Count(CURRENT.get());
+        CURRENT.set(count);
+        return count;
+    }
+
+    /**
+     * Returns the statements counted so far by the innermost open count, or 0
+     * if none is open on this thread.
+     */
+    public static int current() {
+        var count = CURRENT.get();
+        return count == null ? 0 : count.statements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        var count = CURRENT.get();
+        if (count != null) {
+            count.statements++;
+        }
+        return sql;
+    }
+}
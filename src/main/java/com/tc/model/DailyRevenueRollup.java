@@ -0,0 +1,46 @@
+package com.tc.model;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+
+/**
+ * Per company, driver and end date totals of the transports, kept up to date
+ * by {@link com.tc.service.RevenueRollupService} on every transport write.
+ */
+@Entity
+public class DailyRevenueRollup {
+
+    @EmbeddedId
+    private DailyRevenueRollupId id;
+
+    private Long passengerTransports;
+    private Long cargoTransports;
+
+    private BigDecimal paidRevenue;
+    private Long unpaidTransports;
+
+    public DailyRevenueRollup() {
+    }
+
+    public DailyRevenueRollupId getId() {
+        return this.id;
+    }
+
+    public Long getPassengerTransports() {
+        return this.passengerTransports;
+    }
+
+    public Long getCargoTransports() {
+        return this.cargoTransports;
+    }
+
+    public BigDecimal getPaidRevenue() {
+        return this.paidRevenue;
+    }
+
+    public Long getUnpaidTransports() {
+        return this.unpaidTransports;
+    }
+}
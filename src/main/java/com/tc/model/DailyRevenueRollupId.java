@@ -0,0 +1,58 @@
+package com.tc.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+@Embeddable
+public class DailyRevenueRollupId implements Serializable {
+    @Column(name = "company_id")
+    private Long companyId;
+
+    @Column(name = "driver_id")
+    private Long driverId;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    public DailyRevenueRollupId() {
+    }
+
+    public DailyRevenueRollupId(Long companyId, Long driverId, LocalDate endDate) {
+        this.companyId = companyId;
+        this.driverId = driverId;
+        this.endDate = endDate;
+    }
+
+    public Long getCompanyId() {
+        return this.companyId;
+    }
+
+    public Long getDriverId() {
+        return this.driverId;
+    }
+
+    public LocalDate getEndDate() {
+        return this.endDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DailyRevenueRollupId other)) {
+            return false;
+        }
+        return Objects.equals(companyId, other.companyId) && Objects.equals(driverId, other.driverId)
+                && Objects.equals(endDate, other.endDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(companyId, driverId, endDate);
+    }
+}
@@ -4,10 +4,13 @@ import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
@@ -30,6 +33,10 @@ public class Driver {
 
     private BigDecimal salary;
 
+    // maintained by database triggers from driver_qualification, only read here
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Long qualificationMask;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "company_id", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
@@ -41,6 +48,7 @@ public class Driver {
     })
     @JoinTable(name = "driver_qualification", joinColumns = { @JoinColumn(name = "driver_id") }, inverseJoinColumns = {
             @JoinColumn(name = "qualification_id") })
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Set<Qualification> qualifications = new HashSet<>();
 
     public Driver() {
@@ -88,6 +96,10 @@ public class Driver {
         this.company = company;
     }
 
+    public Long getQualificationMask() {
+        return this.qualificationMask;
+    }
+
     public Set<Qualification> getQualifications() {
         return this.qualifications;
     }
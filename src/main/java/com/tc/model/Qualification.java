@@ -3,6 +3,12 @@ package com.tc.model;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -13,6 +19,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Qualification {
 
     @Id
@@ -22,6 +30,11 @@ public class Qualification {
     @Column(unique = true)
     private String type;
 
+    // assigned by a database trigger on insert, null once all bits are taken
+    @Generated(event = EventType.INSERT)
+    @Column(updatable = false)
+    private Short bit;
+
     @ManyToMany(fetch = FetchType.LAZY, cascade = {
             CascadeType.PERSIST,
             CascadeType.MERGE
@@ -47,6 +60,10 @@ public class Qualification {
         this.type = type;
     }
 
+    public Short getBit() {
+        return this.bit;
+    }
+
     public Set<Driver> getDrivers() {
         return this.drivers;
     }
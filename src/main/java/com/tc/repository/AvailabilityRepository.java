@@ -0,0 +1,81 @@
+package com.tc.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.tc.response.DriverResponse;
+import com.tc.response.VehicleResponse;
+
+/**
+ * Finds the drivers and vehicles of a company that are free for a whole
+ * period, each with one anti-join against transport_booking. The overlap test
+ * runs on the GiST indexes of its exclusion constraints, so the cost grows
+ * with the number of candidates, not with their transport history.
+ */
+@Repository
+public class AvailabilityRepository {
+    private static final RowMapper<DriverResponse> DRIVER = (rs, rowNum) -> new DriverResponse(
+            rs.getLong("id"),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            rs.getBigDecimal("salary"));
+
+    private static final RowMapper<VehicleResponse> VEHICLE = (rs, rowNum) -> new VehicleResponse(
+            rs.getLong("id"),
+            rs.getString("registration"),
+            rs.getString("type"),
+            rs.getObject("capacity", Integer.class));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public AvailabilityRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<DriverResponse> findFreeDrivers(Long companyId, LocalDate fromDate, LocalDate toDate,
+            String qualification) {
+        var params = period(companyId, fromDate, toDate);
+        var sql = new StringBuilder("select d.id, d.first_name, d.last_name, d.salary from driver d "
+                + "where d.company_id = :companyId");
+        if (qualification != null) {
+            sql.append(" and exists (select 1 from driver_qualification dq "
+                    + "join qualification q on q.id = dq.qualification_id "
+                    + "where dq.driver_id = d.id and q.type = :qualification)");
+            params.addValue("qualification", qualification);
+        }
+        sql.append(" and not exists (select 1 from transport_booking b "
+                + "where b.driver_id = d.id and b.period && daterange(:fromDate, :toDate, '[]')) "
+                + "order by d.id");
+        return jdbcTemplate.query(sql.toString(), params, DRIVER);
+    }
+
+    public List<VehicleResponse> findFreeVehicles(Long companyId, LocalDate fromDate, LocalDate toDate,
+            Integer minCapacity, String vehicleType) {
+        var params = period(companyId, fromDate, toDate);
+        var sql = new StringBuilder("select v.id, v.registration, v.type, v.capacity from vehicle v "
+                + "where v.company_id = :companyId");
+        if (minCapacity != null) {
+            sql.append(" and v.capacity >= :minCapacity");
+            params.addValue("minCapacity", minCapacity);
+        }
+        if (vehicleType != null) {
+            sql.append(" and v.type = :vehicleType");
+            params.addValue("vehicleType", vehicleType);
+        }
+        sql.append(" and not exists (select 1 from transport_booking b "
+                + "where b.vehicle_id = v.id and b.period && daterange(:fromDate, :toDate, '[]')) "
+                + "order by v.id");
+        return jdbcTemplate.query(sql.toString(), params, VEHICLE);
+    }
+
+    private static MapSqlParameterSource period(Long companyId, LocalDate fromDate, LocalDate toDate) {
+        return new MapSqlParameterSource("companyId", companyId)
+                .addValue("fromDate", fromDate)
+                .addValue("toDate", toDate);
+    }
+}
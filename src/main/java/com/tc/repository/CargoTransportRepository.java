@@ -1,13 +1,78 @@
 package com.tc.repository;
 
 import com.tc.model.CargoTransport;
+import com.tc.response.CargoTransportResponse;
 
+import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CargoTransportRepository
         extends JpaRepository<CargoTransport, Long>, JpaSpecificationExecutor<CargoTransport> {
+    String RESPONSE = "select new com.tc.response.CargoTransportResponse(t.id, t.startAddress, t.endAddress, "
+            + "t.startDate, t.endDate, t.cargoType, t.cargoWeight, t.price, t.isPaid, t.customer.id, t.vehicle.id, "
+            + "t.driver.id) from CargoTransport t ";
+    /**
+     * Listings order by this and the id. Transports without an end date sort
+     * last, under the date their cursors carry, see TransportCursor.
+     */
+    String END_DATE = "coalesce(t.endDate, {d '9999-12-31'})";
+
     List<CargoTransport> findByCompanyId(Long companyId);
-}
\ No newline at end of file
+
+    /**
+     * Reads a page straight into responses, without hydrating entities into the
+     * persistence context. The related ids are read from the foreign key columns.
+     * With and without a destination are separate statements, so neither has a
+     * catch-all predicate that keeps a generic plan from seeking its index.
+     */
+    default Slice<CargoTransportResponse> findPage(Long companyId, String destination, Pageable pageable) {
+        return destination == null
+                ? findCompanyPage(companyId, pageable)
+                : findDestinationPage(companyId, destination, pageable);
+    }
+
+    default Slice<CargoTransportResponse> findPageAfter(Long companyId, String destination, LocalDate endDate,
+            Long id, Pageable pageable) {
+        return destination == null
+                ? findCompanyPageAfter(companyId, endDate, id, pageable)
+                : findDestinationPageAfter(companyId, destination, endDate, id, pageable);
+    }
+
+    @Query(RESPONSE
+            + "where t.company.id = :companyId "
+            + "order by " + END_DATE + ", t.id")
+    Slice<CargoTransportResponse> findCompanyPage(@Param("companyId") Long companyId, Pageable pageable);
+
+    @Query(RESPONSE
+            + "where t.company.id = :companyId and t.endAddress = :destination "
+            + "order by " + END_DATE + ", t.id")
+    Slice<CargoTransportResponse> findDestinationPage(@Param("companyId") Long companyId,
+            @Param("destination") String destination, Pageable pageable);
+
+    @Query(RESPONSE
+            + "where t.company.id = :companyId and (" + END_DATE + ", t.id) > (:endDate, :id) "
+            + "order by " + END_DATE + ", t.id")
+    Slice<CargoTransportResponse> findCompanyPageAfter(@Param("companyId") Long companyId,
+            @Param("endDate") LocalDate endDate, @Param("id") Long id, Pageable pageable);
+
+    @Query(RESPONSE
+            + "where t.company.id = :companyId and t.endAddress = :destination "
+            + "and (" + END_DATE + ", t.id) > (:endDate, :id) "
+            + "order by " + END_DATE + ", t.id")
+    Slice<CargoTransportResponse> findDestinationPageAfter(@Param("companyId") Long companyId,
+            @Param("destination") String destination, @Param("endDate") LocalDate endDate, @Param("id") Long id,
+            Pageable pageable);
+
+    @Query("select t.id from CargoTransport t "
+            + "where t.company.id = :companyId and t.endDate between :startDate and :endDate "
+            + "and coalesce(t.isPaid, false) = false")
+    List<Long> findUnpaidIds(@Param("companyId") Long companyId,
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
@@ -1,11 +1,19 @@
 package com.tc.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.tc.model.Customer;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     List<Customer> findCustomersByCompaniesId(Long companyId);
+
+    boolean existsByIdAndCompaniesId(Long id, Long companyId);
+
+    @Query("select c.id from Customer c join c.companies co where co.id = :companyId and c.id in :ids")
+    List<Long> findIdsByCompaniesIdAndIdIn(@Param("companyId") Long companyId, @Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.tc.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.tc.model.DailyRevenueRollup;
+import com.tc.model.DailyRevenueRollupId;
+import com.tc.repository.projection.DriverRollupTotals;
+
+public interface DailyRevenueRollupRepository extends JpaRepository<DailyRevenueRollup, DailyRevenueRollupId> {
+    @Query("select new com.tc.repository.projection.DriverRollupTotals(d.id, d.firstName, d.lastName, "
+            + "sum(r.passengerTransports), sum(r.cargoTransports), sum(r.paidRevenue), sum(r.unpaidTransports)) "
+            + "from DailyRevenueRollup r join Driver d on d.id = r.id.driverId "
+            + "where r.id.companyId = :companyId and r.id.endDate between :startDate and :endDate "
+            + "group by d.id, d.firstName, d.lastName "
+            + "having sum(r.passengerTransports) + sum(r.cargoTransports) > 0 "
+            + "order by d.id")
+    List<DriverRollupTotals> sumByDriver(@Param("companyId") Long companyId,
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query(value = "insert into daily_revenue_rollup "
+            + "(company_id, driver_id, end_date, passenger_transports, cargo_transports, paid_revenue, unpaid_transports) "
+            + "values (:companyId, :driverId, :endDate, :passengerTransports, :cargoTransports, :paidRevenue, :unpaidTransports) "
+            + "on conflict (company_id, driver_id, end_date) do update set "
+            + "passenger_transports = daily_revenue_rollup.passenger_transports + excluded.passenger_transports, "
+            + "cargo_transports = daily_revenue_rollup.cargo_transports + excluded.cargo_transports, "
+            + "paid_revenue = daily_revenue_rollup.paid_revenue + excluded.paid_revenue, "
+            + "unpaid_transports = daily_revenue_rollup.unpaid_transports + excluded.unpaid_transports", nativeQuery = true)
+    void addTotals(@Param("companyId") Long companyId, @Param("driverId") Long driverId,
+            @Param("endDate") LocalDate endDate, @Param("passengerTransports") long passengerTransports,
+            @Param("cargoTransports") long cargoTransports, @Param("paidRevenue") BigDecimal paidRevenue,
+            @Param("unpaidTransports") long unpaidTransports);
+
+    @Modifying
+    @Query(value = "lock table daily_revenue_rollup in exclusive mode", nativeQuery = true)
+    void lock();
+
+    @Modifying
+    @Query(value = "delete from daily_revenue_rollup", nativeQuery = true)
+    void deleteAllRows();
+
+    @Modifying
+    @Query(value = "insert into daily_revenue_rollup "
+            + "(company_id, driver_id, end_date, passenger_transports, cargo_transports, paid_revenue, unpaid_transports) "
+            + "select company_id, driver_id, end_date, "
+            + "sum(case when kind = 'passenger' then 1 else 0 end), "
+            + "sum(case when kind = 'cargo' then 1 else 0 end), "
+            + "coalesce(sum(case when is_paid then price end), 0), "
+            + "sum(case when is_paid then 0 else 1 end) "
+            + "from (select company_id, driver_id, end_date, price, is_paid, 'passenger' as kind from passenger_transport "
+            + "union all select company_id, driver_id, end_date, price, is_paid, 'cargo' as kind from cargo_transport) t "
+            + "where end_date is not null "
+            + "group by company_id, driver_id, end_date", nativeQuery = true)
+    int insertFromTransports();
+}
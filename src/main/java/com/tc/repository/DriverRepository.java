@@ -2,11 +2,27 @@ package com.tc.repository;
 
 import com.tc.model.Driver;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface DriverRepository extends JpaRepository<Driver, Long>, JpaSpecificationExecutor<Driver> {
+public interface DriverRepository
+        extends JpaRepository<Driver, Long>, JpaSpecificationExecutor<Driver>, DriverSliceRepository {
     List<Driver> findByCompanyId(Long companyId);
-}
\ No newline at end of file
+
+    boolean existsByIdAndCompanyId(Long id, Long companyId);
+
+    @Query("select d.id from Driver d where d.company.id = :companyId and d.id in :ids")
+    List<Long> findIdsByCompanyIdAndIdIn(@Param("companyId") Long companyId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Loads the drivers with their qualifications initialized in one query,
+     * instead of one lazy load per driver. The order of the ids is not kept.
+     */
+    @Query("select d from Driver d left join fetch d.qualifications where d.id in :ids")
+    List<Driver> fetchQualifications(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,15 @@
+package com.tc.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.tc.model.Driver;
+
+public interface DriverSliceRepository {
+    /**
+     * Reads one page of drivers without the count query a {@code Page} needs,
+     * by fetching a single row past the end of the page.
+     */
+    Slice<Driver> findSlice(Specification<Driver> specification, Pageable pageable);
+}
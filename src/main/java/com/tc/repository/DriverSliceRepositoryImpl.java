@@ -0,0 +1,41 @@
+package com.tc.repository;
+
+import java.util.ArrayList;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.tc.model.Driver;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+class DriverSliceRepositoryImpl implements DriverSliceRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Driver> findSlice(Specification<Driver> specification, Pageable pageable) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(Driver.class);
+        var root = query.from(Driver.class);
+        var predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        var drivers = new ArrayList<>(entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList());
+        var hasNext = drivers.size() > pageable.getPageSize();
+        if (hasNext) {
+            drivers.remove(drivers.size() - 1);
+        }
+        return new SliceImpl<>(drivers, pageable, hasNext);
+    }
+}
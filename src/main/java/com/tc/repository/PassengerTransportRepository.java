@@ -1,13 +1,78 @@
 package com.tc.repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.tc.model.PassengerTransport;
+import com.tc.response.PassengerTransportResponse;
 
 public interface PassengerTransportRepository
         extends JpaRepository<PassengerTransport, Long>, JpaSpecificationExecutor<PassengerTransport> {
+    String RESPONSE = "select new com.tc.response.PassengerTransportResponse(t.id, t.startAddress, t.endAddress, "
+            + "t.startDate, t.endDate, t.numberOfPassengers, t.price, t.isPaid, t.customer.id, t.vehicle.id, "
+            + "t.driver.id) from PassengerTransport t ";
+    /**
+     * Listings order by this and the id. Transports without an end date sort
+     * last, under the date their cursors carry, see TransportCursor.
+     */
+    String END_DATE = "coalesce(t.endDate, {d '9999-12-31'})";
+
     List<PassengerTransport> findByCompanyId(Long companyId);
-}
\ No newline at end of file
+
+    /**
+     * Reads a page straight into responses, without hydrating entities into the
+     * persistence context. The related ids are read from the foreign key columns.
+     * With and without a destination are separate statements, so neither has a
+     * catch-all predicate that keeps a generic plan from seeking its index.
+     */
+    default Slice<PassengerTransportResponse> findPage(Long companyId, String destination, Pageable pageable) {
+        return destination == null
+                ? findCompanyPage(companyId, pageable)
+                : findDestinationPage(companyId, destination, pageable);
+    }
+
+    default Slice<PassengerTransportResponse> findPageAfter(Long companyId, String destination, LocalDate endDate,
+            Long id, Pageable pageable) {
+        return destination == null
+                ? findCompanyPageAfter(companyId, endDate, id, pageable)
+                : findDestinationPageAfter(companyId, destination, endDate, id, pageable);
+    }
+
+    @Query(RESPONSE
+            + "where t.company.id = :companyId "
+            + "order by " + END_DATE + ", t.id")
+    Slice<PassengerTransportResponse> findCompanyPage(@Param("companyId") Long companyId, Pageable pageable);
+
+    @Query(RESPONSE
+            + "where t.company.id = :companyId and t.endAddress = :destination "
+            + "order by " + END_DATE + ", t.id")
+    Slice<PassengerTransportResponse> findDestinationPage(@Param("companyId") Long companyId,
+            @Param("destination") String destination, Pageable pageable);
+
+    @Query(RESPONSE
+            + "where t.company.id = :companyId and (" + END_DATE + ", t.id) > (:endDate, :id) "
+            + "order by " + END_DATE + ", t.id")
+    Slice<PassengerTransportResponse> findCompanyPageAfter(@Param("companyId") Long companyId,
+            @Param("endDate") LocalDate endDate, @Param("id") Long id, Pageable pageable);
+
+    @Query(RESPONSE
+            + "where t.company.id = :companyId and t.endAddress = :destination "
+            + "and (" + END_DATE + ", t.id) > (:endDate, :id) "
+            + "order by " + END_DATE + ", t.id")
+    Slice<PassengerTransportResponse> findDestinationPageAfter(@Param("companyId") Long companyId,
+            @Param("destination") String destination, @Param("endDate") LocalDate endDate, @Param("id") Long id,
+            Pageable pageable);
+
+    @Query("select t.id from PassengerTransport t "
+            + "where t.company.id = :companyId and t.endDate between :startDate and :endDate "
+            + "and coalesce(t.isPaid, false) = false")
+    List<Long> findUnpaidIds(@Param("companyId") Long companyId,
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
@@ -1,11 +1,19 @@
 package com.tc.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.tc.model.Qualification;
+import com.tc.repository.projection.QualificationBit;
 
 public interface QualificationRepository extends JpaRepository<Qualification, Long> {
     List<Qualification> findQualificationsByDriversId(Long driverId);
+
+    @Query("select new com.tc.repository.projection.QualificationBit(q.type, q.bit) from Qualification q "
+            + "where q.type in :types")
+    List<QualificationBit> findBitsByTypeIn(@Param("types") Collection<String> types);
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.tc.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.tc.request.TransportCursor;
+import com.tc.response.TransportResponse;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Reads cargo and passenger transports together, ordered by (endDate, id),
+ * with transports without an end date last, as in the per-type listings.
+ * Hibernate would turn a polymorphic query into a UNION over both tables with
+ * the predicates applied on top of it, so the UNION ALL is written by hand with
+ * the company, destination, cursor and row limit pushed into each branch, where
+ * they can use the per-table indexes. Not being a Spring Data repository, it
+ * is timed under a metric of its own.
+ */
+@Repository
+public class TransportQueryRepository {
+    private static final String END_DATE = "coalesce(end_date, date '9999-12-31')";
+    private static final String CARGO_COLUMNS = "select 'cargo' as type, id, start_address, end_address, "
+            + "start_date, end_date, cargo_type, cargo_weight, null::integer as number_of_passengers, price, "
+            + "is_paid, customer_id, vehicle_id, driver_id, " + END_DATE + " as sort_end_date "
+            + "from cargo_transport";
+    private static final String PASSENGER_COLUMNS = "select 'passenger' as type, id, start_address, end_address, "
+            + "start_date, end_date, null::varchar as cargo_type, null::integer as cargo_weight, "
+            + "number_of_passengers, price, is_paid, customer_id, vehicle_id, driver_id, "
+            + END_DATE + " as sort_end_date "
+            + "from passenger_transport";
+
+    private static final RowMapper<TransportResponse> TRANSPORT = (rs, rowNum) -> new TransportResponse(
+            rs.getString("type"),
+            rs.getLong("id"),
+            rs.getString("start_address"),
+            rs.getString("end_address"),
+            rs.getObject("start_date", LocalDate.class),
+            rs.getObject("end_date", LocalDate.class),
+            rs.getString("cargo_type"),
+            rs.getObject("cargo_weight", Integer.class),
+            rs.getObject("number_of_passengers", Integer.class),
+            rs.getBigDecimal("price"),
+            rs.getObject("is_paid", Boolean.class),
+            rs.getLong("customer_id"),
+            rs.getLong("vehicle_id"),
+            rs.getLong("driver_id"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TransportQueryRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Returns a page of the company's transports. When {@code after} is given
+     * the page starts right after that position and the page number of
+     * {@code pageable} is ignored.
+     */
+    @Timed(value = "tc.transport.listing", description = "Pages of the unified transport listing")
+    public Slice<TransportResponse> findPage(Long companyId, String destination, TransportCursor after,
+            Pageable pageable) {
+        var params = new MapSqlParameterSource("companyId", companyId);
+        var where = new StringBuilder(" where company_id = :companyId");
+        if (destination != null) {
+            where.append(" and end_address = :destination");
+            params.addValue("destination", destination);
+        }
+        var offset = 0L;
+        if (after != null) {
+            where.append(" and (" + END_DATE + ", id) > (:endDate, :id)");
+            params.addValue("endDate", after.endDate());
+            params.addValue("id", after.id());
+        } else {
+            offset = pageable.getOffset();
+        }
+        // one extra row tells whether there is a next page, without a count query
+        var limit = pageable.getPageSize() + 1;
+        params.addValue("limit", limit);
+        params.addValue("offset", offset);
+        params.addValue("branchLimit", offset + limit);
+
+        var branch = where + " order by " + END_DATE + ", id limit :branchLimit";
+        var sql = "(" + CARGO_COLUMNS + branch + ") union all (" + PASSENGER_COLUMNS + branch + ") "
+                + "order by sort_end_date, id limit :limit offset :offset";
+        List<TransportResponse> content = jdbcTemplate.query(sql, params, TRANSPORT);
+
+        var hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+}
@@ -2,10 +2,18 @@ package com.tc.repository;
 
 import com.tc.model.Vehicle;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     List<Vehicle> findByCompanyId(Long companyId);
+
+    Optional<Vehicle> findByIdAndCompanyId(Long id, Long companyId);
+
+    List<Vehicle> findByCompanyIdAndIdIn(Long companyId, Collection<Long> ids);
+
+    List<Vehicle> findByCompanyIdAndType(Long companyId, String type);
 }
\ No newline at end of file
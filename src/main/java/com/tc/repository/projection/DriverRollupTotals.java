@@ -0,0 +1,10 @@
+package com.tc.repository.projection;
+
+import java.math.BigDecimal;
+
+public record DriverRollupTotals(Long driverId, String firstName, String lastName, Long passengerTransports,
+        Long cargoTransports, BigDecimal paidRevenue, Long unpaidTransports) {
+    public long paidTransports() {
+        return passengerTransports + cargoTransports - unpaidTransports;
+    }
+}
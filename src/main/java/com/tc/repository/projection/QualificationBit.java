@@ -0,0 +1,4 @@
+package com.tc.repository.projection;
+
+public record QualificationBit(String type, Short bit) {
+}
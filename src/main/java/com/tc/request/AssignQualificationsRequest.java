@@ -0,0 +1,18 @@
+package com.tc.request;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public class AssignQualificationsRequest {
+    @NotNull(message = "driverIds: must not be null")
+    @Size(min = 1, max = 10000, message = "driverIds: must contain between 1 and 10000 ids")
+    public List<@NotNull(message = "driverIds: must not contain null") Long> driverIds;
+
+    @NotNull(message = "types: must not be null")
+    @Size(min = 1, max = 100, message = "types: must contain between 1 and 100 types")
+    public List<@NotBlank(message = "types: must not contain empty types")
+            @Size(max = 50, message = "types: must have length between 1 and 50 characters") String> types;
+}
@@ -0,0 +1,25 @@
+package com.tc.request;
+
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+public class CargoOrderRequest {
+        @NotBlank(message = "endAddress: must not be empty")
+        @NotNull(message = "endAddress: must not be null")
+        @Size(min = 1, max = 100, message = "endAddress: must have length between 1 and 100 characters")
+        public String endAddress;
+
+        @NotNull(message = "startDate: must not be null")
+        public LocalDate startDate;
+
+        @NotNull(message = "endDate: must not be null")
+        public LocalDate endDate;
+
+        @NotNull(message = "cargoWeight: must not be null")
+        @Positive(message = "cargoWeight: must be positive")
+        public Integer cargoWeight;
+}
@@ -0,0 +1,13 @@
+package com.tc.request;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public class PlanCargoRequest {
+    @NotNull(message = "orders: must not be null")
+    @Size(max = 10000, message = "orders: must contain at most 10000 orders")
+    public List<@Valid @NotNull(message = "orders: must not contain null") CargoOrderRequest> orders;
+}
@@ -0,0 +1,18 @@
+package com.tc.request;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import jakarta.validation.constraints.Size;
+
+public class SettleTransportsRequest {
+    @Size(max = 100000, message = "cargoTransportIds: must contain at most 100000 ids")
+    public List<Long> cargoTransportIds;
+
+    @Size(max = 100000, message = "passengerTransportIds: must contain at most 100000 ids")
+    public List<Long> passengerTransportIds;
+
+    public LocalDate fromDate;
+
+    public LocalDate toDate;
+}
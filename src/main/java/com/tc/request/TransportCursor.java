@@ -0,0 +1,41 @@
+package com.tc.request;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.tc.exception.BadRequestException;
+
+/**
+ * Opaque position in a transport listing ordered by (endDate, id). The
+ * listings sort transports without an end date last, as if they ended on
+ * {@link #NO_END_DATE}, and a cursor at one of them carries that date.
+ */
+public record TransportCursor(LocalDate endDate, Long id) {
+    public static final LocalDate NO_END_DATE = LocalDate.of(9999, 12, 31);
+
+    public TransportCursor {
+        if (endDate == null) {
+            endDate = NO_END_DATE;
+        }
+    }
+
+    public static TransportCursor decode(String cursor) {
+        try {
+            var value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var split = value.split(":");
+            if (split.length != 2) {
+                throw new BadRequestException("cursor: is not valid");
+            }
+            return new TransportCursor(LocalDate.parse(split[0]), Long.valueOf(split[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("cursor: is not valid", e);
+        }
+    }
+
+    public String encode() {
+        var value = endDate + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
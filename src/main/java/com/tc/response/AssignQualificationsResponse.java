@@ -0,0 +1,4 @@
+package com.tc.response;
+
+public record AssignQualificationsResponse(Integer drivers, Integer qualifications, Integer assigned) {
+}
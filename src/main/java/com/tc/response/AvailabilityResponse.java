@@ -0,0 +1,6 @@
+package com.tc.response;
+
+import java.util.List;
+
+public record AvailabilityResponse(List<DriverResponse> drivers, List<VehicleResponse> vehicles) {
+}
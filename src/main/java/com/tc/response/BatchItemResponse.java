@@ -0,0 +1,6 @@
+package com.tc.response;
+
+import java.util.List;
+
+public record BatchItemResponse<T>(Integer index, T transport, List<String> errors) {
+}
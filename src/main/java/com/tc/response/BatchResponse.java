@@ -0,0 +1,6 @@
+package com.tc.response;
+
+import java.util.List;
+
+public record BatchResponse<T>(Integer created, Integer failed, List<BatchItemResponse<T>> items) {
+}
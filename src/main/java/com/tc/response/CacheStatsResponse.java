@@ -0,0 +1,11 @@
+package com.tc.response;
+
+public record CacheStatsResponse(
+    String name,
+    Long size,
+    Long hitCount,
+    Long missCount,
+    Double hitRate,
+    Long evictionCount
+) {
+}
@@ -0,0 +1,6 @@
+package com.tc.response;
+
+import java.util.List;
+
+public record CargoPlanResponse(List<PlannedTripResponse> trips, List<Integer> unassigned) {
+}
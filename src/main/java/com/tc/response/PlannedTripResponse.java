@@ -0,0 +1,14 @@
+package com.tc.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record PlannedTripResponse(
+        Long vehicleId,
+        String endAddress,
+        LocalDate startDate,
+        LocalDate endDate,
+        Integer cargoWeight,
+        Integer capacity,
+        List<Integer> orders) {
+}
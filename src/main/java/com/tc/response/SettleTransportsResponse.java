@@ -0,0 +1,4 @@
+package com.tc.response;
+
+public record SettleTransportsResponse(Integer cargoTransports, Integer passengerTransports) {
+}
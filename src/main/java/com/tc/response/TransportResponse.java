@@ -0,0 +1,22 @@
+package com.tc.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record TransportResponse (
+    String type,
+    Long id,
+    String startAddress,
+    String endAddress,
+    LocalDate startDate,
+    LocalDate endDate,
+    String cargoType,
+    Integer cargoWeight,
+    Integer numberOfPassengers,
+    BigDecimal price,
+    Boolean isPaid,
+    Long customerId,
+    Long vehicleId,
+    Long driverId
+) {
+}
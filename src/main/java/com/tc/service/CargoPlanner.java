@@ -0,0 +1,149 @@
+package com.tc.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Packs cargo orders onto truck trips with first-fit decreasing. Only orders
+ * with the same destination and date window can share a trip, so each such
+ * group is packed on its own: heaviest orders first, each into the first trip
+ * of the group with room left, opening a trip on the largest truck that is
+ * free for the window when none has. A truck is never planned for two trips
+ * with overlapping windows.
+ */
+public class CargoPlanner {
+    public record Order(int index, int weight, String destination, LocalDate startDate, LocalDate endDate) {
+    }
+
+    public record Truck(long id, int capacity) {
+    }
+
+    public record Trip(Truck truck, String destination, LocalDate startDate, LocalDate endDate, int load,
+            List<Integer> orders) {
+    }
+
+    public record Plan(List<Trip> trips, List<Integer> unassigned) {
+    }
+
+    /**
+     * Tells whether a truck has no transport from {@code startDate} to
+     * {@code endDate} inclusive.
+     */
+    @FunctionalInterface
+    public interface Calendar {
+        boolean isFree(long truckId, LocalDate startDate, LocalDate endDate);
+    }
+
+    private static final Comparator<Order> GROUPED_HEAVIEST_FIRST = Comparator
+            .comparing(Order::startDate)
+            .thenComparing(Order::endDate)
+            .thenComparing(Order::destination)
+            .thenComparing(Comparator.comparingInt(Order::weight).reversed())
+            .thenComparingInt(Order::index);
+
+    private final List<Truck> trucks;
+    private final Calendar calendar;
+
+    public CargoPlanner(List<Truck> trucks, Calendar calendar) {
+        this.trucks = trucks.stream()
+                .sorted(Comparator.comparingInt(Truck::capacity).reversed().thenComparingLong(Truck::id))
+                .toList();
+        this.calendar = calendar;
+    }
+
+    public Plan plan(List<Order> orders) {
+        var sorted = orders.stream().sorted(GROUPED_HEAVIEST_FIRST).toList();
+        // the orders that opened a trip, by truck, standing for the trip windows
+        var planned = new HashMap<Long, List<Order>>();
+        var trips = new ArrayList<Trip>();
+        var unassigned = new ArrayList<Integer>();
+
+        var open = new ArrayList<OpenTrip>();
+        Order group = null;
+        for (var order : sorted) {
+            if (group == null || !sameGroup(group, order)) {
+                close(open, group, trips);
+                group = order;
+            }
+            var trip = firstFit(open, order.weight());
+            if (trip == null) {
+                var truck = freeTruck(order, planned);
+                if (truck == null) {
+                    unassigned.add(order.index());
+                    continue;
+                }
+                planned.computeIfAbsent(truck.id(), k -> new ArrayList<>()).add(order);
+                trip = new OpenTrip(truck);
+                open.add(trip);
+            }
+            trip.load += order.weight();
+            trip.orders.add(order.index());
+        }
+        close(open, group, trips);
+
+        unassigned.sort(null);
+        return new Plan(trips, unassigned);
+    }
+
+    private static OpenTrip firstFit(List<OpenTrip> open, int weight) {
+        for (var trip : open) {
+            if (trip.truck.capacity() - trip.load >= weight) {
+                return trip;
+            }
+        }
+        return null;
+    }
+
+    private Truck freeTruck(Order order, Map<Long, List<Order>> planned) {
+        for (var truck : trucks) {
+            if (truck.capacity() < order.weight()) {
+                // the trucks are sorted by capacity, none of the rest fits either
+                return null;
+            }
+            if (!overlapsPlanned(planned.get(truck.id()), order)
+                    && calendar.isFree(truck.id(), order.startDate(), order.endDate())) {
+                return truck;
+            }
+        }
+        return null;
+    }
+
+    private static boolean overlapsPlanned(List<Order> windows, Order order) {
+        if (windows == null) {
+            return false;
+        }
+        for (var window : windows) {
+            if (!window.startDate().isAfter(order.endDate()) && !order.startDate().isAfter(window.endDate())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void close(List<OpenTrip> open, Order group, List<Trip> trips) {
+        for (var trip : open) {
+            trips.add(new Trip(trip.truck, group.destination(), group.startDate(), group.endDate(), trip.load,
+                    List.copyOf(trip.orders)));
+        }
+        open.clear();
+    }
+
+    private static boolean sameGroup(Order a, Order b) {
+        return a.startDate().equals(b.startDate()) && a.endDate().equals(b.endDate())
+                && a.destination().equals(b.destination());
+    }
+
+    private static class OpenTrip {
+        private final Truck truck;
+        private final List<Integer> orders = new ArrayList<>();
+        private int load;
+
+        OpenTrip(Truck truck) {
+            this.truck = truck;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.tc.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tc.exception.BadRequestException;
+import com.tc.repository.VehicleRepository;
+import com.tc.request.CargoOrderRequest;
+import com.tc.response.CargoPlanResponse;
+import com.tc.response.PlannedTripResponse;
+
+/**
+ * Plans pending cargo orders onto the trucks of a company, using the trucks'
+ * bookings to skip the ones already on a transport during an order's window.
+ * The plan is only a proposal, nothing is booked.
+ */
+@Service
+public class CargoPlanningService {
+    private final VehicleRepository vehicleRepository;
+    private final TransportBookingService transportBookingService;
+
+    public CargoPlanningService(VehicleRepository vehicleRepository,
+            TransportBookingService transportBookingService) {
+        this.vehicleRepository = vehicleRepository;
+        this.transportBookingService = transportBookingService;
+    }
+
+    @Transactional(readOnly = true)
+    public CargoPlanResponse plan(Long companyId, List<CargoOrderRequest> requests) {
+        var orders = new ArrayList<CargoPlanner.Order>(requests.size());
+        for (var i = 0; i < requests.size(); i++) {
+            var request = requests.get(i);
+            if (request.startDate.isAfter(request.endDate)) {
+                throw new BadRequestException("start date cannot be after end date");
+            }
+            orders.add(new CargoPlanner.Order(i, request.cargoWeight, request.endAddress, request.startDate,
+                    request.endDate));
+        }
+
+        var trucks = vehicleRepository.findByCompanyIdAndType(companyId, "TRUCK").stream()
+                .filter(vehicle -> vehicle.getCapacity() != null)
+                .map(vehicle -> new CargoPlanner.Truck(vehicle.getId(), vehicle.getCapacity()))
+                .toList();
+        var bookings = transportBookingService.load(List.of(),
+                trucks.stream().map(CargoPlanner.Truck::id).toList(),
+                orders.stream().map(CargoPlanner.Order::startDate).min(Comparator.naturalOrder()).orElse(null),
+                orders.stream().map(CargoPlanner.Order::endDate).max(Comparator.naturalOrder()).orElse(null));
+
+        var plan = new CargoPlanner(trucks, bookings::isVehicleFree).plan(orders);
+        var trips = plan.trips().stream().map(trip -> {
+            return new PlannedTripResponse(
+                    trip.truck().id(),
+                    trip.destination(),
+                    trip.startDate(),
+                    trip.endDate(),
+                    trip.load(),
+                    trip.truck().capacity(),
+                    trip.orders());
+        }).toList();
+        return new CargoPlanResponse(trips, plan.unassigned());
+    }
+}
@@ -0,0 +1,73 @@
+package com.tc.service;
+
+import java.time.Duration;
+
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tc.exception.NotFoundException;
+import com.tc.model.Company;
+import com.tc.repository.CompanyRepository;
+import com.tc.response.CacheStatsResponse;
+import com.tc.response.CompanyResponse;
+
+/**
+ * Bounded in-process cache of existing companies, so that the company check
+ * every company scoped endpoint starts with does not cost a round trip.
+ * Missing companies are not cached. {@link com.tc.controller.CompanyController}
+ * invalidates an entry after every write to that company; the expiry only
+ * bounds how long a company deleted behind the API's back stays visible.
+ */
+@Service
+public class CompanyLookupCache {
+    private static final long MAXIMUM_SIZE = 10_000;
+    private static final Duration EXPIRE_AFTER_WRITE = Duration.ofMinutes(10);
+
+    private final CompanyRepository companyRepository;
+    private final Cache<Long, CompanyResponse> companies = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .expireAfterWrite(EXPIRE_AFTER_WRITE)
+            .recordStats()
+            .build();
+
+    public CompanyLookupCache(CompanyRepository companyRepository) {
+        this.companyRepository = companyRepository;
+    }
+
+    public boolean exists(Long companyId) {
+        return companyId != null && find(companyId) != null;
+    }
+
+    public CompanyResponse require(Long companyId) {
+        var company = companyId == null ? null : find(companyId);
+        if (company == null) {
+            throw new NotFoundException("company not found");
+        }
+        return company;
+    }
+
+    /**
+     * Returns an uninitialized reference to an existing company, for
+     * associating new entities with it without loading it.
+     */
+    public Company requireReference(Long companyId) {
+        return companyRepository.getReferenceById(require(companyId).id());
+    }
+
+    public void invalidate(Long companyId) {
+        companies.invalidate(companyId);
+    }
+
+    public CacheStatsResponse stats() {
+        var stats = companies.stats();
+        return new CacheStatsResponse("company", companies.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    private CompanyResponse find(Long companyId) {
+        return companies.get(companyId, id -> companyRepository.findById(id)
+                .map(company -> new CompanyResponse(company.getId(), company.getName()))
+                .orElse(null));
+    }
+}
@@ -0,0 +1,44 @@
+package com.tc.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reads the per company change counter that database triggers bump on every
+ * write to a company's drivers, vehicles, customers and transports, and turns
+ * it into strong ETags for the company scoped read endpoints.
+ */
+@Service
+public class CompanyRevisionService {
+    private final JdbcTemplate jdbcTemplate;
+
+    public CompanyRevisionService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long revision(Long companyId) {
+        var revisions = jdbcTemplate.queryForList("select revision from company_revision where company_id = ?",
+                Long.class, companyId);
+        return revisions.isEmpty() ? 0 : revisions.get(0);
+    }
+
+    /**
+     * Returns an ETag that changes whenever anything the company's responses
+     * are built from changes. Parts of the representation that do not come
+     * from the database, like resolved default dates, go into {@code variant}.
+     */
+    public String etag(Long companyId, Object... variant) {
+        return etagAt(companyId, revision(companyId), variant);
+    }
+
+    /**
+     * Returns the ETag for the given, already read revision of the company.
+     */
+    public String etagAt(Long companyId, long revision, Object... variant) {
+        var etag = new StringBuilder("\"").append(companyId).append('-').append(revision);
+        for (var part : variant) {
+            etag.append('-').append(part);
+        }
+        return etag.append('"').toString();
+    }
+}
@@ -0,0 +1,54 @@
+package com.tc.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+
+import com.tc.repository.QualificationRepository;
+
+/**
+ * Resolves qualification types to the bits of the drivers' qualification
+ * masks. A qualification keeps its bit for good, so resolved types are kept in
+ * memory and only types not seen before cost a query. Unknown types are not
+ * remembered, since they may be created later.
+ */
+@Service
+public class QualificationBitCache {
+    /**
+     * The bit of a qualification created after all bits were taken.
+     */
+    public static final int NO_BIT = -1;
+
+    private final Map<String, Integer> bits = new ConcurrentHashMap<>();
+    private final QualificationRepository qualificationRepository;
+
+    public QualificationBitCache(QualificationRepository qualificationRepository) {
+        this.qualificationRepository = qualificationRepository;
+    }
+
+    /**
+     * Returns the bits of the given types that exist, {@link #NO_BIT} for the
+     * ones that have none.
+     */
+    public Map<String, Integer> resolve(Collection<String> types) {
+        var resolved = new HashMap<String, Integer>();
+        var missing = types.stream().filter(type -> {
+            var bit = bits.get(type);
+            if (bit != null) {
+                resolved.put(type, bit);
+            }
+            return bit == null;
+        }).toList();
+        if (!missing.isEmpty()) {
+            for (var qualification : qualificationRepository.findBitsByTypeIn(missing)) {
+                var bit = qualification.bit() == null ? NO_BIT : qualification.bit().intValue();
+                bits.put(qualification.type(), bit);
+                resolved.put(qualification.type(), bit);
+            }
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,138 @@
+package com.tc.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import org.hibernate.Cache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.tc.exception.BadRequestException;
+import com.tc.exception.NotFoundException;
+import com.tc.response.AssignQualificationsResponse;
+import com.tc.response.QualificationResponse;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Creates qualifications and assigns them to drivers with single statements
+ * that insert the missing types with ON CONFLICT (type) DO NOTHING, so
+ * concurrent requests for the same new type neither fail nor duplicate it.
+ * A statement that waited on a concurrent insert of one of its types cannot
+ * see that row in its snapshot, and is run again. As these statements bypass
+ * Hibernate, the cached qualifications of the drivers are evicted once the
+ * transaction commits.
+ * <p>
+ * The ids come from a plain nextval on qualification_seq, which moves the
+ * sequence by its whole increment of 50, a block Hibernate never hands out.
+ * So every inserted type, and every type that lost a race and was run again,
+ * uses up 50 ids. Types that already exist draw none.
+ */
+@Service
+public class QualificationService {
+    private static final int ATTEMPTS = 3;
+
+    private static final String ASSIGN = "with found as (select id from driver where id = ?), "
+            + "inserted as (insert into qualification (id, type) "
+            + "select nextval('qualification_seq'), ? where exists (select 1 from found) "
+            + "and not exists (select 1 from qualification where type = ?) "
+            + "on conflict (type) do nothing returning id, type), "
+            + "q as (select id, type from inserted union all select id, type from qualification where type = ?), "
+            + "linked as (insert into driver_qualification (driver_id, qualification_id) "
+            + "select found.id, q.id from found cross join q on conflict do nothing) "
+            + "select found.id as driver_id, q.id, q.type from found left join q on true";
+
+    private static final String ASSIGN_ALL = "with found as (select id from driver "
+            + "where company_id = ? and id = any(?)), "
+            + "types as (select distinct type from unnest(?::varchar[]) as type), "
+            + "inserted as (insert into qualification (id, type) "
+            + "select nextval('qualification_seq'), type from types where exists (select 1 from found) "
+            + "and not exists (select 1 from qualification where qualification.type = types.type) "
+            + "order by type on conflict (type) do nothing returning id, type), "
+            + "q as (select id, type from inserted union all "
+            + "select id, type from qualification where type in (select type from types)), "
+            + "linked as (insert into driver_qualification (driver_id, qualification_id) "
+            + "select found.id, q.id from found cross join q order by 1, 2 on conflict do nothing returning 1) "
+            + "select (select count(*) from found) as drivers, (select count(*) from q) as qualifications, "
+            + "(select count(*) from types) as types, (select count(*) from linked) as assigned";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public QualificationService(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Assigns the qualification of the given type to the driver, creating it
+     * when it does not exist yet, in one round trip.
+     */
+    @Transactional
+    public QualificationResponse assign(Long driverId, String type) {
+        for (var attempt = 0; attempt < ATTEMPTS; attempt++) {
+            var rows = jdbcTemplate.queryForList(ASSIGN, driverId, type, type, type);
+            if (rows.isEmpty()) {
+                throw new NotFoundException("driver not found");
+            }
+            var row = rows.get(0);
+            if (row.get("id") != null) {
+                evictQualificationsAfterCommit(List.of(driverId));
+                return new QualificationResponse(((Number) row.get("id")).longValue(), (String) row.get("type"));
+            }
+        }
+        throw new IllegalStateException("qualification " + type + " was neither inserted nor found");
+    }
+
+    /**
+     * Assigns every given qualification type to every given driver of the
+     * company, creating the types that do not exist yet, in one statement.
+     */
+    @Transactional
+    public AssignQualificationsResponse assignAll(Long companyId, Collection<Long> driverIds,
+            Collection<String> types) {
+        var ids = driverIds.stream().filter(Objects::nonNull).distinct().toList();
+        // a repeated statement only reports the assignments the earlier ones did not make
+        var assigned = 0L;
+        for (var attempt = 0; attempt < ATTEMPTS; attempt++) {
+            var result = jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement(ASSIGN_ALL);
+                ps.setLong(1, companyId);
+                ps.setArray(2, con.createArrayOf("bigint", ids.toArray()));
+                ps.setArray(3, con.createArrayOf("varchar", types.toArray()));
+                return ps;
+            }, (rs, rowNum) -> new long[] {
+                    rs.getLong("drivers"), rs.getLong("qualifications"), rs.getLong("types"), rs.getLong("assigned") })
+                    .get(0);
+            if (result[0] != ids.size()) {
+                throw new BadRequestException("no such driver working for the company");
+            }
+            assigned += result[3];
+            if (result[1] == result[2]) {
+                evictQualificationsAfterCommit(ids);
+                return new AssignQualificationsResponse((int) result[0], (int) result[1], (int) assigned);
+            }
+        }
+        throw new IllegalStateException("some qualifications were neither inserted nor found");
+    }
+
+    private void evictQualificationsAfterCommit(List<Long> driverIds) {
+        var cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        Runnable evict = () -> driverIds.forEach(
+                driverId -> cache.evictCollectionData("com.tc.model.Driver.qualifications", driverId));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,145 @@
+package com.tc.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.tc.repository.projection.DriverRollupTotals;
+import com.tc.response.report.CompanyReportResponse;
+import com.tc.response.report.DriverRef;
+import com.tc.response.report.TransportRef;
+
+/**
+ * Accumulates a company report in a single pass over the per-driver rollup
+ * totals and the unpaid transport ids. Per-driver counts and revenue are kept
+ * in parallel primitive arrays indexed through an open-addressing table keyed
+ * by driver id, and revenue is summed as unscaled cents. A driver with any
+ * paid transport reports its revenue with two decimals, even when it sums to
+ * zero. Drivers are reported in the order they were first seen.
+ */
+public class ReportAggregator {
+    public static final String PASSENGER = "passenger";
+    public static final String CARGO = "cargo";
+
+    private int[] table;
+    private long[] ids;
+    private String[] firstNames;
+    private String[] lastNames;
+    private long[] counts;
+    private long[] revenueCents;
+    private boolean[] paid;
+    private int size;
+
+    private int passengerTransports;
+    private int cargoTransports;
+    private final List<TransportRef> unpaidTransports = new ArrayList<>();
+
+    public ReportAggregator() {
+        this(16);
+    }
+
+    public ReportAggregator(int expectedDrivers) {
+        var capacity = Math.max(4, expectedDrivers);
+        this.table = new int[tableSizeFor(capacity)];
+        this.ids = new long[capacity];
+        this.firstNames = new String[capacity];
+        this.lastNames = new String[capacity];
+        this.counts = new long[capacity];
+        this.revenueCents = new long[capacity];
+        this.paid = new boolean[capacity];
+    }
+
+    public void addDriverTotals(DriverRollupTotals totals) {
+        passengerTransports += totals.passengerTransports().intValue();
+        cargoTransports += totals.cargoTransports().intValue();
+        var slot = slotOf(totals.driverId(), totals.firstName(), totals.lastName());
+        counts[slot] += totals.passengerTransports() + totals.cargoTransports();
+        if (totals.paidTransports() > 0) {
+            revenueCents[slot] = Math.addExact(revenueCents[slot], toCents(totals.paidRevenue()));
+            paid[slot] = true;
+        }
+    }
+
+    public void addUnpaid(long transportId, String type) {
+        unpaidTransports.add(new TransportRef(transportId, type));
+    }
+
+    public CompanyReportResponse toResponse() {
+        var drivers = new ArrayList<DriverRef>(size);
+        var totalCents = 0L;
+        var anyPaid = false;
+        for (var slot = 0; slot < size; slot++) {
+            totalCents = Math.addExact(totalCents, revenueCents[slot]);
+            anyPaid |= paid[slot];
+            drivers.add(new DriverRef(ids[slot], firstNames[slot], lastNames[slot], counts[slot],
+                    paid[slot] ? BigDecimal.valueOf(revenueCents[slot], 2) : BigDecimal.ZERO));
+        }
+        return new CompanyReportResponse(
+                passengerTransports,
+                cargoTransports,
+                anyPaid ? BigDecimal.valueOf(totalCents, 2) : BigDecimal.ZERO,
+                List.copyOf(unpaidTransports),
+                drivers);
+    }
+
+    private int slotOf(long driverId, String firstName, String lastName) {
+        var mask = table.length - 1;
+        var index = hash(driverId) & mask;
+        while (table[index] != 0) {
+            var slot = table[index] - 1;
+            if (ids[slot] == driverId) {
+                return slot;
+            }
+            index = (index + 1) & mask;
+        }
+
+        if (size == ids.length) {
+            grow();
+            return slotOf(driverId, firstName, lastName);
+        }
+        var slot = size++;
+        ids[slot] = driverId;
+        firstNames[slot] = firstName;
+        lastNames[slot] = lastName;
+        table[index] = slot + 1;
+        return slot;
+    }
+
+    private void grow() {
+        var capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        firstNames = Arrays.copyOf(firstNames, capacity);
+        lastNames = Arrays.copyOf(lastNames, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        revenueCents = Arrays.copyOf(revenueCents, capacity);
+        paid = Arrays.copyOf(paid, capacity);
+
+        table = new int[tableSizeFor(capacity)];
+        var mask = table.length - 1;
+        for (var slot = 0; slot < size; slot++) {
+            var index = hash(ids[slot]) & mask;
+            while (table[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            table[index] = slot + 1;
+        }
+    }
+
+    private static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static int tableSizeFor(int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+
+    private static int hash(long key) {
+        var h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
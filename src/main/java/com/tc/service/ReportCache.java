@@ -0,0 +1,121 @@
+package com.tc.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tc.response.CacheStatsResponse;
+import com.tc.response.report.CompanyReportResponse;
+
+/**
+ * Caches company reports by company, company revision and date range, so a
+ * report is never served after anything it is built from, like a driver's
+ * name, has changed. Concurrent requests for the same report share a single
+ * computation, which runs on the thread of the first request. Transport
+ * writes also evict, once their transaction commits, the reports of their
+ * company whose range contains the transport's end date, so outdated entries
+ * do not take up room until they expire.
+ */
+@Service
+public class ReportCache {
+    private static final long MAXIMUM_SIZE = 1_000;
+    private static final Duration EXPIRE_AFTER_WRITE = Duration.ofMinutes(10);
+
+    private final ReportService reportService;
+    private final AsyncCache<ReportKey, CompanyReportResponse> reports = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .expireAfterWrite(EXPIRE_AFTER_WRITE)
+            .recordStats()
+            .buildAsync();
+
+    public ReportCache(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    private record ReportKey(Long companyId, long revision, LocalDate startDate, LocalDate endDate) {
+        boolean contains(Long companyId, LocalDate date) {
+            return this.companyId.equals(companyId) && !date.isBefore(startDate) && !date.isAfter(endDate);
+        }
+    }
+
+    /**
+     * Returns the company's report, computed from data at least as recent as
+     * the given revision, which the caller has read beforehand.
+     */
+    public CompanyReportResponse getCompanyReport(Long companyId, long revision, LocalDate startDate,
+            LocalDate endDate) {
+        var computation = new CompletableFuture<CompanyReportResponse>();
+        var report = reports.get(new ReportKey(companyId, revision, startDate, endDate),
+                (key, executor) -> computation);
+        if (report == computation) {
+            try {
+                computation.complete(reportService.getCompanyReport(companyId, startDate, endDate));
+            } catch (RuntimeException | Error e) {
+                // a failed future is dropped from the cache, so the next request retries
+                computation.completeExceptionally(e);
+            }
+        }
+        try {
+            return report.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Evicts the company's reports covering any of the given end dates once
+     * the current transaction commits, or right away without a transaction.
+     */
+    public void evictAfterCommit(Long companyId, Collection<LocalDate> endDates) {
+        var dates = List.copyOf(endDates);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(companyId, dates);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(companyId, dates);
+            }
+        });
+    }
+
+    /**
+     * Evicts every report once the current transaction commits.
+     */
+    public void evictAllAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reports.synchronous().invalidateAll();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reports.synchronous().invalidateAll();
+            }
+        });
+    }
+
+    public CacheStatsResponse stats() {
+        var cache = reports.synchronous();
+        var stats = cache.stats();
+        return new CacheStatsResponse("report", cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    private void evict(Long companyId, List<LocalDate> dates) {
+        reports.asMap().keySet().removeIf(key -> dates.stream().anyMatch(date -> key.contains(companyId, date)));
+    }
+}
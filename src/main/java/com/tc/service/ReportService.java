@@ -0,0 +1,60 @@
+package com.tc.service;
+
+import java.time.LocalDate;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tc.repository.CargoTransportRepository;
+import com.tc.repository.DailyRevenueRollupRepository;
+import com.tc.repository.PassengerTransportRepository;
+import com.tc.response.report.CompanyReportResponse;
+
+/**
+ * Builds company reports from the daily revenue rollup, so only one row per
+ * driver and the ids of unpaid transports are transferred from the database.
+ * The report is read from a single REPEATABLE READ snapshot, which the
+ * passenger and cargo unpaid id queries share while running concurrently.
+ */
+@Service
+public class ReportService {
+    private final DailyRevenueRollupRepository rollupRepository;
+    private final CargoTransportRepository cargoTransportRepository;
+    private final PassengerTransportRepository passengerTransportRepository;
+    private final SnapshotQueryExecutor snapshotQueryExecutor;
+
+    public ReportService(DailyRevenueRollupRepository rollupRepository,
+            CargoTransportRepository cargoTransportRepository,
+            PassengerTransportRepository passengerTransportRepository,
+            SnapshotQueryExecutor snapshotQueryExecutor) {
+        this.rollupRepository = rollupRepository;
+        this.cargoTransportRepository = cargoTransportRepository;
+        this.passengerTransportRepository = passengerTransportRepository;
+        this.snapshotQueryExecutor = snapshotQueryExecutor;
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public CompanyReportResponse getCompanyReport(Long companyId, LocalDate startDate, LocalDate endDate) {
+        var totals = rollupRepository.sumByDriver(companyId, startDate, endDate);
+
+        var aggregator = new ReportAggregator(totals.size());
+        var unpaidTransports = 0L;
+        for (var row : totals) {
+            aggregator.addDriverTotals(row);
+            unpaidTransports += row.unpaidTransports();
+        }
+        if (unpaidTransports > 0) {
+            var unpaid = snapshotQueryExecutor.inParallel(
+                    () -> passengerTransportRepository.findUnpaidIds(companyId, startDate, endDate),
+                    () -> cargoTransportRepository.findUnpaidIds(companyId, startDate, endDate));
+            for (var id : unpaid.getValue0()) {
+                aggregator.addUnpaid(id, ReportAggregator.PASSENGER);
+            }
+            for (var id : unpaid.getValue1()) {
+                aggregator.addUnpaid(id, ReportAggregator.CARGO);
+            }
+        }
+        return aggregator.toResponse();
+    }
+}
@@ -0,0 +1,143 @@
+package com.tc.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tc.model.PassengerTransport;
+import com.tc.model.Transport;
+import com.tc.repository.DailyRevenueRollupRepository;
+
+/**
+ * Maintains the daily revenue rollup. Every transport write must record its
+ * effect here within the same transaction, so the rollup never drifts from the
+ * transport tables. The cached reports affected by a write are evicted once
+ * it commits. Like the backfill, the rollup leaves out transports without an
+ * end date, and counts those without a price as earning nothing.
+ */
+@Service
+public class RevenueRollupService {
+    private final DailyRevenueRollupRepository rollupRepository;
+    private final ReportCache reportCache;
+
+    public RevenueRollupService(DailyRevenueRollupRepository rollupRepository, ReportCache reportCache) {
+        this.rollupRepository = rollupRepository;
+        this.reportCache = reportCache;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Transport transport) {
+        apply(transport, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(Transport transport) {
+        apply(transport, -1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addAll(Collection<? extends Transport> transports) {
+        Map<RollupKey, RollupDelta> deltas = new HashMap<>();
+        for (var transport : transports) {
+            if (transport.getEndDate() == null) {
+                continue;
+            }
+            var key = new RollupKey(transport.getCompany().getId(), transport.getDriver().getId(),
+                    transport.getEndDate());
+            deltas.computeIfAbsent(key, k -> new RollupDelta()).add(transport);
+        }
+        write(deltas);
+    }
+
+    /**
+     * Moves transports settled with a bulk update from unpaid to paid.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void markPaid(Long companyId, Collection<TransportSettlementService.SettledTransport> settled) {
+        Map<RollupKey, RollupDelta> deltas = new HashMap<>();
+        for (var transport : settled) {
+            if (transport.endDate() == null) {
+                continue;
+            }
+            var key = new RollupKey(companyId, transport.driverId(), transport.endDate());
+            deltas.computeIfAbsent(key, k -> new RollupDelta()).settle(transport.price());
+        }
+        write(deltas);
+    }
+
+    @Transactional
+    public void rebuild() {
+        rollupRepository.lock();
+        rollupRepository.deleteAllRows();
+        rollupRepository.insertFromTransports();
+        reportCache.evictAllAfterCommit();
+    }
+
+    private void apply(Transport transport, int sign) {
+        if (transport.getEndDate() == null) {
+            return;
+        }
+        var passenger = transport instanceof PassengerTransport;
+        var paid = Boolean.TRUE.equals(transport.getIsPaid());
+        rollupRepository.addTotals(
+                transport.getCompany().getId(),
+                transport.getDriver().getId(),
+                transport.getEndDate(),
+                passenger ? sign : 0,
+                passenger ? 0 : sign,
+                paid ? priceOf(transport.getPrice()).multiply(BigDecimal.valueOf(sign)) : BigDecimal.ZERO,
+                paid ? 0 : sign);
+        reportCache.evictAfterCommit(transport.getCompany().getId(), List.of(transport.getEndDate()));
+    }
+
+    private static BigDecimal priceOf(BigDecimal price) {
+        return price == null ? BigDecimal.ZERO : price;
+    }
+
+    private void write(Map<RollupKey, RollupDelta> deltas) {
+        Map<Long, Set<LocalDate>> endDates = new HashMap<>();
+        deltas.forEach((key, delta) -> {
+            rollupRepository.addTotals(key.companyId(), key.driverId(), key.endDate(),
+                    delta.passengerTransports, delta.cargoTransports, delta.paidRevenue, delta.unpaidTransports);
+            endDates.computeIfAbsent(key.companyId(), k -> new HashSet<>()).add(key.endDate());
+        });
+        endDates.forEach(reportCache::evictAfterCommit);
+    }
+
+    private record RollupKey(Long companyId, Long driverId, LocalDate endDate) {
+    }
+
+    private static class RollupDelta {
+        private long passengerTransports;
+        private long cargoTransports;
+        private BigDecimal paidRevenue = BigDecimal.ZERO;
+        private long unpaidTransports;
+
+        void add(Transport transport) {
+            if (transport instanceof PassengerTransport) {
+                passengerTransports++;
+            } else {
+                cargoTransports++;
+            }
+            if (Boolean.TRUE.equals(transport.getIsPaid())) {
+                paidRevenue = paidRevenue.add(priceOf(transport.getPrice()));
+            } else {
+                unpaidTransports++;
+            }
+        }
+
+        void settle(BigDecimal price) {
+            paidRevenue = paidRevenue.add(priceOf(price));
+            unpaidTransports--;
+        }
+    }
+}
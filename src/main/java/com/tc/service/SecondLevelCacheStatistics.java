@@ -0,0 +1,46 @@
+package com.tc.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import com.tc.response.CacheStatsResponse;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Reads the per region hit and miss counts of the Hibernate second-level
+ * cache from the session factory statistics.
+ */
+@Service
+public class SecondLevelCacheStatistics {
+    private final Statistics statistics;
+
+    public SecondLevelCacheStatistics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public List<CacheStatsResponse> regions() {
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> toResponse(statistics.getDomainDataRegionStatistics(region)))
+                .toList();
+    }
+
+    private static CacheStatsResponse toResponse(CacheRegionStatistics region) {
+        var hits = region.getHitCount();
+        var misses = region.getMissCount();
+        var size = region.getElementCountInMemory();
+        return new CacheStatsResponse(
+                region.getRegionName(),
+                size == CacheRegionStatistics.NO_EXTENDED_STAT_SUPPORT_RETURN ? null : size,
+                hits,
+                misses,
+                hits + misses == 0 ? 0.0 : (double) hits / (hits + misses),
+                null);
+    }
+}
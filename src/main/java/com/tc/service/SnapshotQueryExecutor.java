@@ -0,0 +1,149 @@
+package com.tc.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.javatuples.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tc.config.AdmissionControlDataSource;
+import com.tc.exception.DatabaseBusyException;
+
+/**
+ * Runs two independent read queries concurrently while keeping the read
+ * semantics of the caller's transaction. The caller runs the first query
+ * itself and a worker runs the second one on a separate connection. The
+ * caller's REPEATABLE READ snapshot is exported with
+ * {@code pg_export_snapshot()} and imported by the worker, so it sees exactly
+ * what the caller sees. The worker only takes a connection when the database
+ * admission limit has a permit free right away; when it gets none, the pool
+ * is saturated, the worker has not started by the time the caller is done
+ * with the first query, or it fails, the second query runs inline in the
+ * caller's transaction rather than waiting for a connection.
+ */
+@Service
+public class SnapshotQueryExecutor implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(SnapshotQueryExecutor.class);
+
+    private static final int MAX_CONCURRENT_QUERIES = 8;
+    private static final int MAX_QUEUED_QUERIES = 32;
+    private static final long TIMEOUT_SECONDS = 5;
+    private static final Pattern SNAPSHOT_ID = Pattern.compile("[0-9A-Fa-f-]+");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            MAX_CONCURRENT_QUERIES, MAX_CONCURRENT_QUERIES, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUED_QUERIES),
+            Thread.ofVirtual().name("snapshot-query-", 0).factory());
+
+    public SnapshotQueryExecutor(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs both queries and returns their results, the first one on the
+     * calling thread. Must be called inside a REPEATABLE READ (or
+     * SERIALIZABLE) transaction.
+     */
+    public <A, B> Pair<A, B> inParallel(Supplier<A> first, Supplier<B> second) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("snapshot queries need a surrounding transaction");
+        }
+        var snapshotId = jdbcTemplate.queryForObject("select pg_export_snapshot()", String.class);
+        if (snapshotId == null || !SNAPSHOT_ID.matcher(snapshotId).matches()) {
+            throw new IllegalStateException("unexpected snapshot id " + snapshotId);
+        }
+
+        var claimed = new AtomicBoolean();
+        var secondFuture = submit(snapshotId, second, claimed);
+        A firstResult;
+        try {
+            firstResult = first.get();
+        } catch (RuntimeException | Error e) {
+            // the exported snapshot stays importable only while this transaction is open
+            if (secondFuture != null && !claimed.compareAndSet(false, true)) {
+                secondFuture.cancel(true);
+            }
+            throw e;
+        }
+        return new Pair<>(firstResult, await(secondFuture, second, claimed));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> Future<T> submit(String snapshotId, Supplier<T> query, AtomicBoolean claimed) {
+        try {
+            return executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    // the caller got to the query first and runs it itself
+                    return null;
+                }
+                return AdmissionControlDataSource.withoutWaiting(() -> snapshotTransaction.execute(status -> {
+                    jdbcTemplate.execute("set transaction snapshot '" + snapshotId + "'");
+                    return query.get();
+                }));
+            });
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private <T> T await(Future<T> future, Supplier<T> query, AtomicBoolean claimed) {
+        if (future == null || claimed.compareAndSet(false, true)) {
+            return query.get();
+        }
+        // the worker is running the query, and waits for neither a permit nor the pool
+        try {
+            return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for a snapshot query", e);
+        } catch (ExecutionException e) {
+            if (isDatabaseBusy(e)) {
+                log.debug("no connection free for a snapshot query, running it inline");
+            } else {
+                log.warn("snapshot query failed, running it inline", e);
+            }
+            return query.get();
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("snapshot query timed out, running it inline", e);
+            return query.get();
+        }
+    }
+
+    private static boolean isDatabaseBusy(Throwable e) {
+        for (var cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DatabaseBusyException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
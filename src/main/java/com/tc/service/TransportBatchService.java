@@ -0,0 +1,100 @@
+package com.tc.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tc.exception.BadRequestException;
+import com.tc.model.Transport;
+import com.tc.response.BatchItemResponse;
+import com.tc.response.BatchResponse;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Validates a batch of transport requests item by item and inserts the valid
+ * ones with a single saveAll, which Hibernate sends as JDBC batches.
+ */
+@Service
+public class TransportBatchService {
+    public static final int MAX_BATCH_SIZE = 10000;
+
+    private final Validator validator;
+    private final RevenueRollupService revenueRollupService;
+
+    public TransportBatchService(Validator validator, RevenueRollupService revenueRollupService) {
+        this.validator = validator;
+        this.revenueRollupService = revenueRollupService;
+    }
+
+    /**
+     * Rejects a batch over {@link #MAX_BATCH_SIZE} transports. Callers run it
+     * before looking up anything for the batch, so an oversized one never
+     * reaches the database.
+     */
+    public void checkSize(List<?> requests) {
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("batch: must contain at most " + MAX_BATCH_SIZE + " transports");
+        }
+    }
+
+    /**
+     * Builds a transport for every valid request and saves them. Requests that
+     * fail bean validation or for which {@code build} throws a
+     * {@link BadRequestException} are reported with their errors. When
+     * {@code atomic} is set, nothing is saved if any request failed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <R, T extends Transport, S> BatchResponse<S> create(List<R> requests, boolean atomic,
+            Function<R, T> build, Function<List<T>, List<T>> saveAll, Function<T, S> toResponse) {
+        checkSize(requests);
+
+        var errors = new ArrayList<List<String>>(requests.size());
+        var transports = new ArrayList<T>(requests.size());
+        var failed = 0;
+        for (var request : requests) {
+            var itemErrors = validate(request);
+            T transport = null;
+            if (itemErrors.isEmpty()) {
+                try {
+                    transport = build.apply(request);
+                } catch (BadRequestException e) {
+                    itemErrors = List.of(e.getMessage());
+                }
+            }
+            if (!itemErrors.isEmpty()) {
+                failed++;
+            }
+            errors.add(itemErrors);
+            transports.add(transport);
+        }
+
+        var valid = transports.stream().filter(Objects::nonNull).toList();
+        List<T> saved = atomic && failed > 0 ? List.of() : saveAll.apply(valid);
+        revenueRollupService.addAll(saved);
+
+        var items = new ArrayList<BatchItemResponse<S>>(requests.size());
+        var next = 0;
+        for (var i = 0; i < requests.size(); i++) {
+            S response = null;
+            if (transports.get(i) != null && next < saved.size()) {
+                response = toResponse.apply(saved.get(next++));
+            }
+            items.add(new BatchItemResponse<>(i, response, errors.get(i)));
+        }
+        return new BatchResponse<>(saved.size(), failed, items);
+    }
+
+    private List<String> validate(Object request) {
+        if (request == null) {
+            return List.of("transport: must not be null");
+        }
+        return validator.validate(request).stream().map(ConstraintViolation::getMessage).sorted().toList();
+    }
+}
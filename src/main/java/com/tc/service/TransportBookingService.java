@@ -0,0 +1,67 @@
+package com.tc.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reads the bookings that overlap transports about to be written, so double
+ * bookings are reported as validation errors before anything is flushed. The
+ * exclusion constraints on transport_booking still reject the ones that race
+ * past this check. The lookup goes through the GiST indexes of those
+ * constraints, so it only touches bookings that intersect the requested
+ * period, however long the history of a driver or vehicle is.
+ */
+@Service
+public class TransportBookingService {
+    private static final String QUERY = "select transport_id, driver_id, vehicle_id, lower(period) as start_date, "
+            + "upper(period) - 1 as end_date from transport_booking "
+            + "where (driver_id = any(?) or vehicle_id = any(?)) and period && daterange(?, ?, '[]')";
+
+    private static final RowMapper<TransportBookings.Booking> BOOKING = (rs, rowNum) -> new TransportBookings.Booking(
+            rs.getLong("transport_id"),
+            rs.getLong("driver_id"),
+            rs.getLong("vehicle_id"),
+            rs.getObject("start_date", LocalDate.class),
+            rs.getObject("end_date", LocalDate.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransportBookingService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Fails with a BadRequestException when the driver or vehicle is booked by
+     * another transport during the given period.
+     */
+    public void check(Long transportId, Long driverId, Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        load(List.of(driverId), List.of(vehicleId), startDate, endDate)
+                .claim(transportId, driverId, vehicleId, startDate, endDate);
+    }
+
+    /**
+     * Loads the bookings of the given drivers and vehicles that overlap the
+     * period from {@code fromDate} to {@code toDate} inclusive.
+     */
+    public TransportBookings load(Collection<Long> driverIds, Collection<Long> vehicleIds, LocalDate fromDate,
+            LocalDate toDate) {
+        if (fromDate == null || toDate == null || fromDate.isAfter(toDate)) {
+            return new TransportBookings(List.of());
+        }
+        var bookings = jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(QUERY);
+            ps.setArray(1, con.createArrayOf("bigint", driverIds.stream().filter(Objects::nonNull).toArray()));
+            ps.setArray(2, con.createArrayOf("bigint", vehicleIds.stream().filter(Objects::nonNull).toArray()));
+            ps.setObject(3, fromDate);
+            ps.setObject(4, toDate);
+            return ps;
+        }, BOOKING);
+        return new TransportBookings(bookings);
+    }
+}
@@ -0,0 +1,75 @@
+package com.tc.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.tc.exception.BadRequestException;
+
+/**
+ * The driver and vehicle bookings around a set of transports about to be
+ * written, loaded once for a whole batch. Claims made through it are kept, so
+ * transports of the same batch cannot overlap each other either.
+ */
+public class TransportBookings {
+    record Booking(Long transportId, Long driverId, Long vehicleId, LocalDate startDate, LocalDate endDate) {
+    }
+
+    private final Map<Long, List<Booking>> byDriver = new HashMap<>();
+    private final Map<Long, List<Booking>> byVehicle = new HashMap<>();
+
+    TransportBookings(List<Booking> bookings) {
+        bookings.forEach(this::add);
+    }
+
+    /**
+     * Books the driver and vehicle from {@code startDate} to {@code endDate}
+     * inclusive, ignoring the existing booking of {@code transportId} when an
+     * existing transport is being updated.
+     */
+    public void claim(Long transportId, Long driverId, Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        var driverConflict = findOverlap(byDriver.get(driverId), transportId, startDate, endDate);
+        if (driverConflict != null) {
+            throw new BadRequestException("driver is already booked from " + driverConflict.startDate() + " to "
+                    + driverConflict.endDate());
+        }
+        var vehicleConflict = findOverlap(byVehicle.get(vehicleId), transportId, startDate, endDate);
+        if (vehicleConflict != null) {
+            throw new BadRequestException("vehicle is already booked from " + vehicleConflict.startDate() + " to "
+                    + vehicleConflict.endDate());
+        }
+        add(new Booking(transportId, driverId, vehicleId, startDate, endDate));
+    }
+
+    /**
+     * Tells whether the vehicle has no booking that overlaps the period from
+     * {@code startDate} to {@code endDate} inclusive.
+     */
+    public boolean isVehicleFree(Long vehicleId, LocalDate startDate, LocalDate endDate) {
+        return findOverlap(byVehicle.get(vehicleId), null, startDate, endDate) == null;
+    }
+
+    private void add(Booking booking) {
+        byDriver.computeIfAbsent(booking.driverId(), k -> new ArrayList<>()).add(booking);
+        byVehicle.computeIfAbsent(booking.vehicleId(), k -> new ArrayList<>()).add(booking);
+    }
+
+    private static Booking findOverlap(List<Booking> bookings, Long transportId, LocalDate startDate,
+            LocalDate endDate) {
+        if (bookings == null) {
+            return null;
+        }
+        for (var booking : bookings) {
+            if (transportId != null && Objects.equals(booking.transportId(), transportId)) {
+                continue;
+            }
+            if (!booking.startDate().isAfter(endDate) && !startDate.isAfter(booking.endDate())) {
+                return booking;
+            }
+        }
+        return null;
+    }
+}
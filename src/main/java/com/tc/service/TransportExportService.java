@@ -0,0 +1,234 @@
+package com.tc.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tc.exception.BadRequestException;
+
+/**
+ * Streams every transport of a company straight from a forward-only JDBC
+ * cursor, one row at a time, without going through the persistence context.
+ */
+@Service
+public class TransportExportService {
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String CARGO_QUERY = "select id, start_address, end_address, start_date, end_date, "
+            + "cargo_type, cargo_weight, price, is_paid, customer_id, vehicle_id, driver_id "
+            + "from cargo_transport where company_id = ? order by id";
+    private static final String PASSENGER_QUERY = "select id, start_address, end_address, start_date, end_date, "
+            + "number_of_passengers, price, is_paid, customer_id, vehicle_id, driver_id "
+            + "from passenger_transport where company_id = ? order by id";
+
+    private static final String[] CSV_HEADER = { "type", "id", "startAddress", "endAddress", "startDate",
+            "endDate", "cargoType", "cargoWeight", "numberOfPassengers", "price", "isPaid", "customerId",
+            "vehicleId", "driverId" };
+
+    public enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return this.mediaType;
+        }
+
+        public String getExtension() {
+            return this.extension;
+        }
+
+        public static Format parse(String format) {
+            for (var f : values()) {
+                if (f.extension.equalsIgnoreCase(format)) {
+                    return f;
+                }
+            }
+            throw new BadRequestException("format: must be one of [ndjson, csv]");
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public TransportExportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public void export(Long companyId, Format format, OutputStream out) throws IOException {
+        var writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        var rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new JsonRowWriter(writer);
+        try {
+            // the PostgreSQL driver only honours the fetch size inside a transaction
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.query(cursor(CARGO_QUERY, companyId), rs -> {
+                    rowWriter.write("cargo", rs);
+                });
+                jdbcTemplate.query(cursor(PASSENGER_QUERY, companyId), rs -> {
+                    rowWriter.write("passenger", rs);
+                });
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        rowWriter.close();
+    }
+
+    /**
+     * Sets the fetch size on the statement only, the shared template keeps
+     * fetching whole results for everyone else.
+     */
+    private static PreparedStatementCreator cursor(String sql, Long companyId) {
+        return con -> {
+            var ps = con.prepareStatement(sql);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setLong(1, companyId);
+            return ps;
+        };
+    }
+
+    private interface RowWriter {
+        void write(String type, ResultSet rs) throws SQLException;
+
+        void close() throws IOException;
+    }
+
+    private class JsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        JsonRowWriter(Writer writer) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(String type, ResultSet rs) throws SQLException {
+            try {
+                generator.writeStartObject();
+                generator.writeStringField("type", type);
+                generator.writeNumberField("id", rs.getLong("id"));
+                generator.writeStringField("startAddress", rs.getString("start_address"));
+                generator.writeStringField("endAddress", rs.getString("end_address"));
+                generator.writeStringField("startDate", formatDate(rs.getObject("start_date", LocalDate.class)));
+                generator.writeStringField("endDate", formatDate(rs.getObject("end_date", LocalDate.class)));
+                if (type.equals("cargo")) {
+                    generator.writeStringField("cargoType", rs.getString("cargo_type"));
+                    generator.writeObjectField("cargoWeight", rs.getObject("cargo_weight", Integer.class));
+                } else {
+                    generator.writeObjectField("numberOfPassengers",
+                            rs.getObject("number_of_passengers", Integer.class));
+                }
+                generator.writeNumberField("price", rs.getBigDecimal("price"));
+                generator.writeObjectField("isPaid", rs.getObject("is_paid", Boolean.class));
+                generator.writeNumberField("customerId", rs.getLong("customer_id"));
+                generator.writeNumberField("vehicleId", rs.getLong("vehicle_id"));
+                generator.writeNumberField("driverId", rs.getLong("driver_id"));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private boolean headerWritten;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(String type, ResultSet rs) throws SQLException {
+            try {
+                if (!headerWritten) {
+                    writer.write(String.join(",", CSV_HEADER));
+                    writer.write('\n');
+                    headerWritten = true;
+                }
+                var cargo = type.equals("cargo");
+                writer.write(type);
+                writeField(rs.getString("id"));
+                writeField(rs.getString("start_address"));
+                writeField(rs.getString("end_address"));
+                writeField(formatDate(rs.getObject("start_date", LocalDate.class)));
+                writeField(formatDate(rs.getObject("end_date", LocalDate.class)));
+                writeField(cargo ? rs.getString("cargo_type") : null);
+                writeField(cargo ? rs.getString("cargo_weight") : null);
+                writeField(cargo ? null : rs.getString("number_of_passengers"));
+                var price = rs.getBigDecimal("price");
+                writeField(price == null ? null : price.toPlainString());
+                var paid = rs.getObject("is_paid", Boolean.class);
+                writeField(paid == null ? null : paid.toString());
+                writeField(rs.getString("customer_id"));
+                writeField(rs.getString("vehicle_id"));
+                writeField(rs.getString("driver_id"));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeField(String value) throws IOException {
+            writer.write(',');
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!headerWritten) {
+                writer.write(String.join(",", CSV_HEADER));
+                writer.write('\n');
+            }
+            writer.flush();
+        }
+    }
+
+    private static String formatDate(LocalDate date) {
+        return date == null ? null : date.toString();
+    }
+}
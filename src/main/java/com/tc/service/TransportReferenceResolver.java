@@ -0,0 +1,82 @@
+package com.tc.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.javatuples.Quartet;
+import org.springframework.stereotype.Service;
+
+import com.tc.exception.BadRequestException;
+import com.tc.model.Company;
+import com.tc.model.Customer;
+import com.tc.model.Driver;
+import com.tc.model.Vehicle;
+import com.tc.repository.CustomerRepository;
+import com.tc.repository.DriverRepository;
+import com.tc.repository.VehicleRepository;
+
+/**
+ * Resolves the entities a transport refers to, checking that each of them
+ * belongs to the company with an indexed point lookup instead of loading the
+ * company's collections. Only the vehicle is loaded, since its type and
+ * capacity are validated; the other references are uninitialized proxies.
+ */
+@Service
+public class TransportReferenceResolver {
+    private final CompanyLookupCache companyLookupCache;
+    private final DriverRepository driverRepository;
+    private final CustomerRepository customerRepository;
+    private final VehicleRepository vehicleRepository;
+
+    public TransportReferenceResolver(CompanyLookupCache companyLookupCache, DriverRepository driverRepository,
+            CustomerRepository customerRepository, VehicleRepository vehicleRepository) {
+        this.companyLookupCache = companyLookupCache;
+        this.driverRepository = driverRepository;
+        this.customerRepository = customerRepository;
+        this.vehicleRepository = vehicleRepository;
+    }
+
+    public Quartet<Company, Driver, Customer, Vehicle> resolve(Long companyId, Long driverId, Long customerId,
+            Long vehicleId) {
+        var company = companyLookupCache.requireReference(companyId);
+
+        if (!driverRepository.existsByIdAndCompanyId(driverId, companyId)) {
+            throw new BadRequestException("no such driver working for the company");
+        }
+
+        if (!customerRepository.existsByIdAndCompaniesId(customerId, companyId)) {
+            throw new BadRequestException("the company has no such customer");
+        }
+
+        var vehicle = vehicleRepository.findByIdAndCompanyId(vehicleId, companyId)
+                .orElseThrow(() -> new BadRequestException("the company does not own such vehicle"));
+
+        return new Quartet<>(
+                company,
+                driverRepository.getReferenceById(driverId),
+                customerRepository.getReferenceById(customerId),
+                vehicle);
+    }
+
+    public TransportReferences resolveAll(Long companyId, Collection<Long> driverIds, Collection<Long> customerIds,
+            Collection<Long> vehicleIds) {
+        var company = companyLookupCache.requireReference(companyId);
+
+        Set<Long> drivers = driverIds.isEmpty() ? Set.of()
+                : new HashSet<>(driverRepository.findIdsByCompanyIdAndIdIn(companyId, driverIds));
+        Set<Long> customers = customerIds.isEmpty() ? Set.of()
+                : new HashSet<>(customerRepository.findIdsByCompaniesIdAndIdIn(companyId, customerIds));
+        Map<Long, Vehicle> vehicles = new HashMap<>();
+        if (!vehicleIds.isEmpty()) {
+            for (var vehicle : vehicleRepository.findByCompanyIdAndIdIn(companyId, vehicleIds)) {
+                vehicles.put(vehicle.getId(), vehicle);
+            }
+        }
+
+        return new TransportReferences(company, drivers, customers, vehicles,
+                driverRepository::getReferenceById, customerRepository::getReferenceById);
+    }
+}
@@ -0,0 +1,52 @@
+package com.tc.service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.javatuples.Quartet;
+
+import com.tc.exception.BadRequestException;
+import com.tc.model.Company;
+import com.tc.model.Customer;
+import com.tc.model.Driver;
+import com.tc.model.Vehicle;
+
+/**
+ * The references of a company resolved once for a whole batch of transports.
+ */
+public class TransportReferences {
+    private final Company company;
+    private final Set<Long> driverIds;
+    private final Set<Long> customerIds;
+    private final Map<Long, Vehicle> vehicles;
+    private final Function<Long, Driver> driverReference;
+    private final Function<Long, Customer> customerReference;
+
+    TransportReferences(Company company, Set<Long> driverIds, Set<Long> customerIds, Map<Long, Vehicle> vehicles,
+            Function<Long, Driver> driverReference, Function<Long, Customer> customerReference) {
+        this.company = company;
+        this.driverIds = driverIds;
+        this.customerIds = customerIds;
+        this.vehicles = vehicles;
+        this.driverReference = driverReference;
+        this.customerReference = customerReference;
+    }
+
+    public Quartet<Company, Driver, Customer, Vehicle> get(Long driverId, Long customerId, Long vehicleId) {
+        if (!driverIds.contains(driverId)) {
+            throw new BadRequestException("no such driver working for the company");
+        }
+
+        if (!customerIds.contains(customerId)) {
+            throw new BadRequestException("the company has no such customer");
+        }
+
+        var vehicle = vehicles.get(vehicleId);
+        if (vehicle == null) {
+            throw new BadRequestException("the company does not own such vehicle");
+        }
+
+        return new Quartet<>(company, driverReference.apply(driverId), customerReference.apply(customerId), vehicle);
+    }
+}
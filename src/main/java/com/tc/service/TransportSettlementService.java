@@ -0,0 +1,79 @@
+package com.tc.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tc.response.SettleTransportsResponse;
+
+/**
+ * Marks transports as paid with one set-based UPDATE per transport table.
+ * Transports that are already paid are left untouched and not counted, those
+ * without a payment status are unpaid, as everywhere else.
+ */
+@Service
+public class TransportSettlementService {
+    private static final String RETURNING = " returning driver_id, end_date, price";
+
+    private static final RowMapper<SettledTransport> SETTLED = (rs, rowNum) -> new SettledTransport(
+            rs.getLong("driver_id"),
+            rs.getObject("end_date", LocalDate.class),
+            rs.getBigDecimal("price"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RevenueRollupService revenueRollupService;
+
+    public TransportSettlementService(JdbcTemplate jdbcTemplate, RevenueRollupService revenueRollupService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.revenueRollupService = revenueRollupService;
+    }
+
+    public record SettledTransport(Long driverId, LocalDate endDate, BigDecimal price) {
+    }
+
+    @Transactional
+    public SettleTransportsResponse settleByIds(Long companyId, List<Long> cargoTransportIds,
+            List<Long> passengerTransportIds) {
+        var cargo = settleByIds("cargo_transport", companyId, cargoTransportIds);
+        var passenger = settleByIds("passenger_transport", companyId, passengerTransportIds);
+        return new SettleTransportsResponse(cargo, passenger);
+    }
+
+    @Transactional
+    public SettleTransportsResponse settleByEndDate(Long companyId, LocalDate fromDate, LocalDate toDate) {
+        var cargo = settleByEndDate("cargo_transport", companyId, fromDate, toDate);
+        var passenger = settleByEndDate("passenger_transport", companyId, fromDate, toDate);
+        return new SettleTransportsResponse(cargo, passenger);
+    }
+
+    private int settleByIds(String table, Long companyId, List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        var sql = "update " + table + " set is_paid = true "
+                + "where company_id = ? and id = any(?) and coalesce(is_paid, false) = false" + RETURNING;
+        var settled = jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(sql);
+            ps.setLong(1, companyId);
+            ps.setArray(2, con.createArrayOf("bigint", ids.stream().filter(Objects::nonNull).toArray()));
+            return ps;
+        }, SETTLED);
+        revenueRollupService.markPaid(companyId, settled);
+        return settled.size();
+    }
+
+    private int settleByEndDate(String table, Long companyId, LocalDate fromDate, LocalDate toDate) {
+        var sql = "update " + table + " set is_paid = true "
+                + "where company_id = ? and end_date between ? and ? and coalesce(is_paid, false) = false"
+                + RETURNING;
+        var settled = jdbcTemplate.query(sql, SETTLED, companyId, fromDate, toDate);
+        revenueRollupService.markPaid(companyId, settled);
+        return settled.size();
+    }
+}
@@ -1,17 +1,66 @@
 package com.tc.specification;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+
 import org.springframework.data.jpa.domain.Specification;
 
 import com.tc.model.Driver;
 import com.tc.model.Qualification;
+import com.tc.service.QualificationBitCache;
 
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 
 public class DriverSpecification {
     public static Specification<Driver> hasQualification(String qualification) {
         return (root, query, cb) -> {
-            Join<Driver, Qualification> companyDrivers = root.join("qualifications");
-            return cb.equal(companyDrivers.get("type"), qualification);
+            // an exists subquery rather than a join, so a driver is never listed twice
+            Subquery<Integer> qualified = query.subquery(Integer.class);
+            Root<Driver> driver = qualified.correlate(root);
+            Join<Driver, Qualification> qualifications = driver.join("qualifications");
+            qualified.select(cb.literal(1)).where(cb.equal(qualifications.get("type"), qualification));
+            return cb.exists(qualified);
+        };
+    }
+
+    /**
+     * Matches drivers that have all, or any, of the given qualification types,
+     * with one bitwise test of their qualification mask. Types without a bit
+     * fall back to {@link #hasQualification}, types missing from {@code bits}
+     * do not exist.
+     */
+    public static Specification<Driver> hasQualifications(Collection<String> types, Map<String, Integer> bits,
+            boolean all) {
+        return (root, query, cb) -> {
+            var mask = 0L;
+            var predicates = new ArrayList<Predicate>();
+            for (var type : types) {
+                var bit = bits.get(type);
+                if (bit == null) {
+                    if (all) {
+                        return cb.disjunction();
+                    }
+                } else if (bit == QualificationBitCache.NO_BIT) {
+                    predicates.add(hasQualification(type).toPredicate(root, query, cb));
+                } else {
+                    mask |= 1L << bit;
+                }
+            }
+            if (mask != 0) {
+                Expression<Long> masked = cb.function("bitand", Long.class, root.get("qualificationMask"),
+                        cb.literal(mask));
+                predicates.add(all ? cb.equal(masked, mask) : cb.notEqual(masked, 0L));
+            }
+            if (predicates.isEmpty()) {
+                return cb.disjunction();
+            }
+            var array = predicates.toArray(Predicate[]::new);
+            return all ? cb.and(array) : cb.or(array);
         };
     }
 
@@ -0,0 +1,32 @@
+-- Per company, driver and end date totals the company report is built from.
+-- Databases baselined at V1 never ran the baseline script, so the table has
+-- its own migration; it may already exist where hibernate created it.
+create table if not exists daily_revenue_rollup (
+    company_id bigint not null,
+    driver_id bigint not null,
+    end_date date not null,
+    passenger_transports bigint,
+    cargo_transports bigint,
+    paid_revenue numeric(38, 2),
+    unpaid_transports bigint,
+    primary key (company_id, driver_id, end_date)
+);
+
+-- Fill it from the existing transports, from scratch in case hibernate had
+-- already created and partly filled it, so reports are right from the start.
+-- Transports without an end date fall in no report range and are left out.
+delete from daily_revenue_rollup;
+insert into daily_revenue_rollup
+    (company_id, driver_id, end_date, passenger_transports, cargo_transports, paid_revenue, unpaid_transports)
+select company_id, driver_id, end_date,
+    sum(case when kind = 'passenger' then 1 else 0 end),
+    sum(case when kind = 'cargo' then 1 else 0 end),
+    coalesce(sum(case when is_paid then price end), 0),
+    sum(case when is_paid then 0 else 1 end)
+from (
+    select company_id, driver_id, end_date, price, is_paid, 'passenger' as kind from passenger_transport
+    union all
+    select company_id, driver_id, end_date, price, is_paid, 'cargo' as kind from cargo_transport
+) t
+where end_date is not null
+group by company_id, driver_id, end_date;
@@ -0,0 +1,105 @@
+-- Schema as previously generated by hibernate.ddl-auto=update. Databases that
+-- were created that way are baselined at this version and skip this script.
+
+create sequence company_seq start with 1 increment by 50;
+create sequence customer_seq start with 1 increment by 50;
+create sequence driver_seq start with 1 increment by 50;
+create sequence qualification_seq start with 1 increment by 50;
+create sequence transport_seq start with 1 increment by 50;
+create sequence vehicle_seq start with 1 increment by 50;
+
+create table company (
+    id bigint not null,
+    name varchar(255),
+    primary key (id)
+);
+
+create table customer (
+    id bigint not null,
+    name varchar(255),
+    primary key (id)
+);
+
+create table company_customer (
+    company_id bigint not null,
+    customer_id bigint not null,
+    primary key (company_id, customer_id),
+    constraint fk_company_customer_company foreign key (company_id) references company,
+    constraint fk_company_customer_customer foreign key (customer_id) references customer
+);
+
+create table qualification (
+    id bigint not null,
+    type varchar(255),
+    primary key (id),
+    constraint uk_qualification_type unique (type)
+);
+
+create table driver (
+    id bigint not null,
+    company_id bigint not null,
+    first_name varchar(255),
+    last_name varchar(255),
+    salary numeric(38, 2),
+    primary key (id),
+    constraint fk_driver_company foreign key (company_id) references company on delete cascade
+);
+
+create table driver_qualification (
+    driver_id bigint not null,
+    qualification_id bigint not null,
+    primary key (driver_id, qualification_id),
+    constraint fk_driver_qualification_driver foreign key (driver_id) references driver,
+    constraint fk_driver_qualification_qualification foreign key (qualification_id) references qualification
+);
+
+create table vehicle (
+    id bigint not null,
+    company_id bigint not null,
+    capacity integer,
+    registration varchar(255),
+    type varchar(255),
+    primary key (id),
+    constraint fk_vehicle_company foreign key (company_id) references company on delete cascade
+);
+
+create table cargo_transport (
+    id bigint not null,
+    company_id bigint not null,
+    customer_id bigint not null,
+    driver_id bigint not null,
+    vehicle_id bigint not null,
+    start_address varchar(255),
+    end_address varchar(255),
+    start_date date,
+    end_date date,
+    price numeric(38, 2),
+    is_paid boolean,
+    cargo_type varchar(255),
+    cargo_weight integer,
+    primary key (id),
+    constraint fk_cargo_transport_company foreign key (company_id) references company,
+    constraint fk_cargo_transport_customer foreign key (customer_id) references customer,
+    constraint fk_cargo_transport_driver foreign key (driver_id) references driver,
+    constraint fk_cargo_transport_vehicle foreign key (vehicle_id) references vehicle
+);
+
+create table passenger_transport (
+    id bigint not null,
+    company_id bigint not null,
+    customer_id bigint not null,
+    driver_id bigint not null,
+    vehicle_id bigint not null,
+    start_address varchar(255),
+    end_address varchar(255),
+    start_date date,
+    end_date date,
+    price numeric(38, 2),
+    is_paid boolean,
+    number_of_passengers integer,
+    primary key (id),
+    constraint fk_passenger_transport_company foreign key (company_id) references company,
+    constraint fk_passenger_transport_customer foreign key (customer_id) references customer,
+    constraint fk_passenger_transport_driver foreign key (driver_id) references driver,
+    constraint fk_passenger_transport_vehicle foreign key (vehicle_id) references vehicle
+);
@@ -0,0 +1,40 @@
+-- Listings, keyset pagination, the unified listing and the export all read a
+-- company's transports in (end_date, id) order.
+create index if not exists ix_cargo_transport_company_end_date
+    on cargo_transport (company_id, end_date, id);
+create index if not exists ix_passenger_transport_company_end_date
+    on passenger_transport (company_id, end_date, id);
+
+-- Destination filter, still in (end_date, id) order.
+create index if not exists ix_cargo_transport_company_end_address
+    on cargo_transport (company_id, end_address, end_date, id);
+create index if not exists ix_passenger_transport_company_end_address
+    on passenger_transport (company_id, end_address, end_date, id);
+
+-- Unpaid transport ids of the company report and date range settlement.
+create index if not exists ix_cargo_transport_company_unpaid
+    on cargo_transport (company_id, end_date) where is_paid = false;
+create index if not exists ix_passenger_transport_company_unpaid
+    on passenger_transport (company_id, end_date) where is_paid = false;
+
+-- Foreign keys of the transports, so driver, customer and vehicle lookups and
+-- deletes do not scan the transport tables.
+create index if not exists ix_cargo_transport_driver on cargo_transport (driver_id, end_date);
+create index if not exists ix_passenger_transport_driver on passenger_transport (driver_id, end_date);
+create index if not exists ix_cargo_transport_customer on cargo_transport (customer_id);
+create index if not exists ix_passenger_transport_customer on passenger_transport (customer_id);
+create index if not exists ix_cargo_transport_vehicle on cargo_transport (vehicle_id);
+create index if not exists ix_passenger_transport_vehicle on passenger_transport (vehicle_id);
+
+-- Per company listings and scoped lookups of drivers and vehicles.
+create index if not exists ix_driver_company on driver (company_id, id);
+create index if not exists ix_vehicle_company on vehicle (company_id, id);
+
+-- Reverse sides of the join tables, whose primary keys lead with the owner.
+create index if not exists ix_company_customer_customer on company_customer (customer_id, company_id);
+create index if not exists ix_driver_qualification_qualification
+    on driver_qualification (qualification_id, driver_id);
+
+-- Company report range scans over the rollup.
+create index if not exists ix_daily_revenue_rollup_company_end_date
+    on daily_revenue_rollup (company_id, end_date);
@@ -0,0 +1,116 @@
+-- Per company change counter behind the ETags of the company scoped listings
+-- and the report. Triggers bump it in the writing transaction for every
+-- change to the rows those responses are built from, including changes made
+-- with bulk or native statements. There is deliberately no foreign key to
+-- company: deleting a company cascades to its drivers and vehicles, whose
+-- triggers then run after the company row is already gone.
+create table company_revision (
+    company_id bigint not null,
+    revision bigint not null,
+    primary key (company_id)
+);
+
+-- Ids are locked in order, so concurrent writers cannot deadlock on them.
+create function bump_company_revisions(company_ids bigint[]) returns void
+language sql as $$
+    insert into company_revision (company_id, revision)
+    select distinct id, 1 from unnest(company_ids) as id where id is not null order by id
+    on conflict (company_id) do update set revision = company_revision.revision + 1
+$$;
+
+-- Statement level, so a batch or bulk update bumps each company once.
+create function company_rows_changed() returns trigger
+language plpgsql as $$
+begin
+    if tg_op = 'INSERT' then
+        perform bump_company_revisions(array(select company_id from new_rows));
+    elsif tg_op = 'UPDATE' then
+        perform bump_company_revisions(array(
+            select company_id from new_rows union select company_id from old_rows));
+    else
+        perform bump_company_revisions(array(select company_id from old_rows));
+    end if;
+    return null;
+end
+$$;
+
+create function driver_qualification_rows_changed() returns trigger
+language plpgsql as $$
+begin
+    if tg_op = 'INSERT' then
+        perform bump_company_revisions(array(
+            select d.company_id from new_rows r join driver d on d.id = r.driver_id));
+    else
+        perform bump_company_revisions(array(
+            select d.company_id from old_rows r join driver d on d.id = r.driver_id));
+    end if;
+    return null;
+end
+$$;
+
+-- Renames show up in the listings of every company the customer belongs to.
+create function customer_rows_changed() returns trigger
+language plpgsql as $$
+begin
+    perform bump_company_revisions(array(
+        select cc.company_id from new_rows r join company_customer cc on cc.customer_id = r.id));
+    return null;
+end
+$$;
+
+-- Renames show up in the driver listings of every company with a driver
+-- holding the qualification.
+create function qualification_rows_changed() returns trigger
+language plpgsql as $$
+begin
+    perform bump_company_revisions(array(
+        select d.company_id from new_rows r
+        join driver_qualification dq on dq.qualification_id = r.id
+        join driver d on d.id = dq.driver_id));
+    return null;
+end
+$$;
+
+create trigger driver_revision_insert after insert on driver
+    referencing new table as new_rows for each statement execute function company_rows_changed();
+create trigger driver_revision_update after update on driver
+    referencing new table as new_rows old table as old_rows for each statement execute function company_rows_changed();
+create trigger driver_revision_delete after delete on driver
+    referencing old table as old_rows for each statement execute function company_rows_changed();
+
+create trigger vehicle_revision_insert after insert on vehicle
+    referencing new table as new_rows for each statement execute function company_rows_changed();
+create trigger vehicle_revision_update after update on vehicle
+    referencing new table as new_rows old table as old_rows for each statement execute function company_rows_changed();
+create trigger vehicle_revision_delete after delete on vehicle
+    referencing old table as old_rows for each statement execute function company_rows_changed();
+
+create trigger company_customer_revision_insert after insert on company_customer
+    referencing new table as new_rows for each statement execute function company_rows_changed();
+create trigger company_customer_revision_delete after delete on company_customer
+    referencing old table as old_rows for each statement execute function company_rows_changed();
+
+create trigger cargo_transport_revision_insert after insert on cargo_transport
+    referencing new table as new_rows for each statement execute function company_rows_changed();
+create trigger cargo_transport_revision_update after update on cargo_transport
+    referencing new table as new_rows old table as old_rows for each statement execute function company_rows_changed();
+create trigger cargo_transport_revision_delete after delete on cargo_transport
+    referencing old table as old_rows for each statement execute function company_rows_changed();
+
+create trigger passenger_transport_revision_insert after insert on passenger_transport
+    referencing new table as new_rows for each statement execute function company_rows_changed();
+create trigger passenger_transport_revision_update after update on passenger_transport
+    referencing new table as new_rows old table as old_rows for each statement execute function company_rows_changed();
+create trigger passenger_transport_revision_delete after delete on passenger_transport
+    referencing old table as old_rows for each statement execute function company_rows_changed();
+
+create trigger driver_qualification_revision_insert after insert on driver_qualification
+    referencing new table as new_rows for each statement execute function driver_qualification_rows_changed();
+create trigger driver_qualification_revision_delete after delete on driver_qualification
+    referencing old table as old_rows for each statement execute function driver_qualification_rows_changed();
+
+create trigger customer_revision_update after update on customer
+    referencing new table as new_rows for each statement execute function customer_rows_changed();
+
+create trigger qualification_revision_update after update on qualification
+    referencing new table as new_rows for each statement execute function qualification_rows_changed();
@@ -0,0 +1,67 @@
+-- The period every transport occupies its driver and vehicle for, with
+-- exclusion constraints that reject two overlapping transports for the same
+-- driver or vehicle. The GiST indexes behind them also answer the overlap
+-- pre-check, so it only reads the bookings that intersect the new period.
+-- Cargo and passenger transport ids come from the same sequence, so one
+-- table covers both.
+create extension if not exists btree_gist;
+
+create table transport_booking (
+    transport_id bigint not null,
+    driver_id bigint not null,
+    vehicle_id bigint not null,
+    period daterange not null,
+    primary key (transport_id),
+    constraint transport_booking_driver_overlap exclude using gist (driver_id with =, period with &&),
+    constraint transport_booking_vehicle_overlap exclude using gist (vehicle_id with =, period with &&)
+);
+
+-- Transports without both dates do not occupy anything. Updates that leave
+-- the driver, vehicle and dates alone, like settling, are skipped by the
+-- trigger conditions below.
+create function transport_booking_changed() returns trigger
+language plpgsql as $$
+begin
+    if tg_op in ('UPDATE', 'DELETE') then
+        delete from transport_booking where transport_id = old.id;
+    end if;
+    if tg_op in ('INSERT', 'UPDATE') and new.start_date is not null and new.end_date is not null then
+        insert into transport_booking (transport_id, driver_id, vehicle_id, period)
+        values (new.id, new.driver_id, new.vehicle_id, daterange(new.start_date, new.end_date, '[]'));
+    end if;
+    return null;
+end
+$$;
+
+create trigger cargo_transport_booking_inserted after insert on cargo_transport
+    for each row execute function transport_booking_changed();
+create trigger cargo_transport_booking_updated after update on cargo_transport
+    for each row
+    when (old.driver_id is distinct from new.driver_id or old.vehicle_id is distinct from new.vehicle_id
+        or old.start_date is distinct from new.start_date or old.end_date is distinct from new.end_date)
+    execute function transport_booking_changed();
+create trigger cargo_transport_booking_deleted after delete on cargo_transport
+    for each row execute function transport_booking_changed();
+
+create trigger passenger_transport_booking_inserted after insert on passenger_transport
+    for each row execute function transport_booking_changed();
+create trigger passenger_transport_booking_updated after update on passenger_transport
+    for each row
+    when (old.driver_id is distinct from new.driver_id or old.vehicle_id is distinct from new.vehicle_id
+        or old.start_date is distinct from new.start_date or old.end_date is distinct from new.end_date)
+    execute function transport_booking_changed();
+create trigger passenger_transport_booking_deleted after delete on passenger_transport
+    for each row execute function transport_booking_changed();
+
+-- Existing double bookings cannot be undone here, so the earlier transport
+-- keeps the booking and the later ones are left out, until they are edited.
+insert into transport_booking (transport_id, driver_id, vehicle_id, period)
+select id, driver_id, vehicle_id, daterange(start_date, end_date, '[]')
+from (
+    select id, driver_id, vehicle_id, start_date, end_date from cargo_transport
+    union all
+    select id, driver_id, vehicle_id, start_date, end_date from passenger_transport
+) t
+where start_date is not null and end_date is not null and start_date <= end_date
+order by id
+on conflict do nothing;
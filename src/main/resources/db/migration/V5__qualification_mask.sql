@@ -0,0 +1,67 @@
+-- Every qualification gets a bit, and every driver the mask of the bits of
+-- its qualifications, so "has all of" and "has any of" filters over several
+-- qualifications are one bitwise predicate on driver instead of one join per
+-- qualification. Bits are never reused, qualifications are not deleted. Once
+-- all 63 bits are taken, new qualifications get none and are matched with a
+-- join instead.
+alter table qualification add column bit smallint;
+alter table qualification add constraint uk_qualification_bit unique (bit);
+alter table qualification add constraint ck_qualification_bit check (bit between 0 and 62);
+
+alter table driver add column qualification_mask bigint not null default 0;
+
+-- Takes the lowest free bit. The advisory lock serializes concurrent inserts,
+-- which would otherwise pick the same bit.
+create function assign_qualification_bit() returns trigger
+language plpgsql as $$
+begin
+    if new.bit is null then
+        perform pg_advisory_xact_lock(hashtext('qualification.bit'));
+        select min(b) into new.bit from generate_series(0, 62) b
+        where not exists (select 1 from qualification where bit = b);
+    end if;
+    return new;
+end
+$$;
+
+create trigger qualification_bit_assigned before insert on qualification
+    for each row execute function assign_qualification_bit();
+
+create function refresh_qualification_masks(driver_ids bigint[]) returns void
+language sql as $$
+    update driver d set qualification_mask = coalesce((
+        select bit_or(1::bigint << q.bit)
+        from driver_qualification dq join qualification q on q.id = dq.qualification_id
+        where dq.driver_id = d.id and q.bit is not null), 0)
+    where d.id = any(driver_ids)
+$$;
+
+create function driver_qualification_mask_changed() returns trigger
+language plpgsql as $$
+begin
+    if tg_op = 'INSERT' then
+        perform refresh_qualification_masks(array(select distinct driver_id from new_rows));
+    else
+        perform refresh_qualification_masks(array(select distinct driver_id from old_rows));
+    end if;
+    return null;
+end
+$$;
+
+create trigger driver_qualification_mask_insert after insert on driver_qualification
+    referencing new table as new_rows for each statement execute function driver_qualification_mask_changed();
+create trigger driver_qualification_mask_delete after delete on driver_qualification
+    referencing old table as old_rows for each statement execute function driver_qualification_mask_changed();
+
+update qualification q set bit = n.bit
+from (select id, row_number() over (order by id) - 1 as bit from qualification) n
+where n.id = q.id and n.bit <= 62;
+
+update driver d set qualification_mask = m.mask
+from (
+    select dq.driver_id, bit_or(1::bigint << q.bit) as mask
+    from driver_qualification dq join qualification q on q.id = dq.qualification_id
+    where q.bit is not null
+    group by dq.driver_id
+) m
+where m.driver_id = d.id;
@@ -0,0 +1,9 @@
+-- Transports without a payment status count as unpaid, so the unpaid queries
+-- test coalesce(is_paid, false) = false, and the partial indexes behind them
+-- need the same predicate to be used.
+drop index if exists ix_cargo_transport_company_unpaid;
+drop index if exists ix_passenger_transport_company_unpaid;
+create index ix_cargo_transport_company_unpaid
+    on cargo_transport (company_id, end_date) where coalesce(is_paid, false) = false;
+create index ix_passenger_transport_company_unpaid
+    on passenger_transport (company_id, end_date) where coalesce(is_paid, false) = false;
@@ -0,0 +1,17 @@
+-- The listings sort transports without an end date last, under the date their
+-- cursors carry, so they order and seek by coalesce(end_date, '9999-12-31').
+-- These replace the (end_date, id) listing indexes of V2.
+drop index if exists ix_cargo_transport_company_end_date;
+drop index if exists ix_passenger_transport_company_end_date;
+drop index if exists ix_cargo_transport_company_end_address;
+drop index if exists ix_passenger_transport_company_end_address;
+
+create index ix_cargo_transport_company_end_date
+    on cargo_transport (company_id, coalesce(end_date, date '9999-12-31'), id);
+create index ix_passenger_transport_company_end_date
+    on passenger_transport (company_id, coalesce(end_date, date '9999-12-31'), id);
+
+create index ix_cargo_transport_company_end_address
+    on cargo_transport (company_id, end_address, coalesce(end_date, date '9999-12-31'), id);
+create index ix_passenger_transport_company_end_address
+    on passenger_transport (company_id, end_address, coalesce(end_date, date '9999-12-31'), id);
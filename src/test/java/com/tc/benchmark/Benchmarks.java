@@ -0,0 +1,53 @@
+package com.tc.benchmark;
+
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the code under benchmark the same way everywhere: a few warmup
+ * runs for the JIT and caches, then the best of several measured runs, which
+ * is the one least disturbed by GC and other load. Results are reported to
+ * the log rather than to stdout, for example
+ * {@code report("Report: %,d transports in %.2f ms", size, bestNanos(() -> aggregate(rows)) / 1e6)}.
+ */
+public final class Benchmarks {
+	private static final Logger log = LoggerFactory.getLogger(Benchmarks.class);
+
+	private static final int WARMUPS = 3;
+	private static final int RUNS = 5;
+
+	private Benchmarks() {
+	}
+
+	/**
+	 * Returns the smallest of the measurements, taken after the warmups.
+	 */
+	public static long best(LongSupplier measurement) {
+		for (var warmup = 0; warmup < WARMUPS; warmup++) {
+			measurement.getAsLong();
+		}
+		var best = Long.MAX_VALUE;
+		for (var run = 0; run < RUNS; run++) {
+			best = Math.min(best, measurement.getAsLong());
+		}
+		return best;
+	}
+
+	/**
+	 * Returns the nanoseconds the fastest run of the action took.
+	 */
+	public static long bestNanos(Runnable action) {
+		return best(() -> {
+			var start = System.nanoTime();
+			action.run();
+			return System.nanoTime() - start;
+		});
+	}
+
+	public static void report(String format, Object... args) {
+		log.info(String.format(Locale.ROOT, format, args));
+	}
+}
@@ -0,0 +1,72 @@
+package com.tc.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Runs more concurrent requests than there are admission permits, each with
+ * an uncached company lookup followed by the revision query of its ETag. A
+ * request that kept its first connection while waiting for a second one
+ * would leave every permit held by a waiting request, and all of them would
+ * time out with a 503. Needs the configured database; the seeded companies
+ * are committed, so the requests can see them, and deleted afterwards.
+ */
+@SpringBootTest(properties = { "tc.database.admission.max-concurrent=2", "tc.database.admission.timeout=5s" })
+@AutoConfigureMockMvc
+class DatabaseAdmissionTest {
+	private static final int REQUESTS = 20;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final List<Long> companyIds = new ArrayList<>();
+
+	@AfterEach
+	void deleteCompanies() {
+		for (var companyId : companyIds) {
+			jdbcTemplate.update("delete from company where id = ?", companyId);
+		}
+	}
+
+	@Test
+	void admitsMoreConcurrentRequestsThanPermits() throws Exception {
+		for (var i = 0; i < REQUESTS; i++) {
+			var companyId = jdbcTemplate.queryForObject("select nextval('company_seq')", Long.class);
+			jdbcTemplate.update("insert into company (id, name) values (?, 'admission')", companyId);
+			companyIds.add(companyId);
+		}
+
+		var start = new CountDownLatch(1);
+		var statuses = new ArrayList<Future<Integer>>();
+		try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (var companyId : companyIds) {
+				statuses.add(executor.submit(() -> {
+					start.await();
+					return mockMvc.perform(get("/api/companies/{companyId}/drivers", companyId)).andReturn()
+							.getResponse().getStatus();
+				}));
+			}
+			start.countDown();
+			for (var status : statuses) {
+				assertThat(status.get()).isEqualTo(200);
+			}
+		}
+	}
+}
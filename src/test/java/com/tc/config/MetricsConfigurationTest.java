@@ -0,0 +1,48 @@
+package com.tc.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.HashMap;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.tc.metrics.StatementCounter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MetricsConfigurationTest {
+	private final MetricsConfiguration configuration = new MetricsConfiguration();
+
+	@Test
+	void countsStatementsOfHibernate() {
+		var properties = new HashMap<String, Object>();
+
+		configuration.statementCounterCustomizer().customize(properties);
+
+		assertThat(properties.get(AvailableSettings.STATEMENT_INSPECTOR)).isInstanceOf(StatementCounter.class);
+	}
+
+	@Test
+	void registersDatabaseAdmissionGauges() {
+		var registry = new SimpleMeterRegistry();
+		var dataSource = new AdmissionControlDataSource(new DriverManagerDataSource(), 10, Duration.ofSeconds(1));
+
+		configuration.databaseAdmissionMetrics(dataSource).bindTo(registry);
+
+		assertThat(registry.find("tc.database.admission.available").gauge().value()).isEqualTo(10);
+		assertThat(registry.find("tc.database.admission.waiting").gauge().value()).isZero();
+	}
+
+	@Test
+	void registersNoAdmissionGaugesWithoutAdmissionControl() {
+		var registry = new SimpleMeterRegistry();
+
+		configuration.databaseAdmissionMetrics(new DriverManagerDataSource()).bindTo(registry);
+
+		assertThat(registry.find("tc.database.admission.available").gauge()).isNull();
+		assertThat(registry.find("tc.database.admission.waiting").gauge()).isNull();
+	}
+}
@@ -0,0 +1,79 @@
+package com.tc.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.tc.repository.CompanyRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+/**
+ * Checks that the auto-configured timers and pool gauges the dashboards rely
+ * on are registered, with the percentiles set in application.properties.
+ * Needs the configured database. Spring Boot tests record into a
+ * SimpleMeterRegistry in place of the Prometheus one.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MetricsRegistrationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private CompanyRepository companyRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void timesEndpointsWithPercentiles() throws Exception {
+		mockMvc.perform(get("/api/companies/{companyId}/drivers", 0));
+
+		var timer = meterRegistry.find("http.server.requests")
+				.tags("method", "GET", "uri", "/api/companies/{companyId}/drivers")
+				.timer();
+		assertThat(timer).isNotNull();
+		assertThat(timer.count()).isPositive();
+		assertThat(percentiles(timer)).containsExactly(0.5, 0.95, 0.99);
+	}
+
+	@Test
+	void timesRepositoryMethodsWithPercentiles() {
+		companyRepository.findById(0L);
+
+		var timer = meterRegistry.find("spring.data.repository.invocations")
+				.tags("repository", "CompanyRepository", "method", "findById")
+				.timer();
+		assertThat(timer).isNotNull();
+		assertThat(timer.count()).isPositive();
+		assertThat(percentiles(timer)).containsExactly(0.5, 0.95, 0.99);
+	}
+
+	@Test
+	void registersConnectionPoolGauges() {
+		// the pool, and with it its metrics, starts on the first connection
+		companyRepository.count();
+
+		for (var name : new String[] { "hikaricp.connections", "hikaricp.connections.active",
+				"hikaricp.connections.idle", "hikaricp.connections.pending", "hikaricp.connections.max" }) {
+			assertThat(meterRegistry.find(name).gauge()).as(name).isNotNull();
+		}
+		assertThat(meterRegistry.find("hikaricp.connections.max").gauge().value()).isEqualTo(10);
+	}
+
+	private static double[] percentiles(Timer timer) {
+		return Arrays.stream(timer.takeSnapshot().percentileValues()).mapToDouble(ValueAtPercentile::percentile)
+				.toArray();
+	}
+}
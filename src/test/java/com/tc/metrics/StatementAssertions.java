@@ -0,0 +1,37 @@
+package com.tc.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fails a test when the code under test runs more Hibernate statements than
+ * expected, for example
+ * {@code assertStatementsAtMost(3, () -> mockMvc.perform(get("/api/companies/1/drivers")))}.
+ * Only statements run on the calling thread are counted, which includes
+ * MockMvc requests but not asynchronous work.
+ */
+public final class StatementAssertions {
+
+	@FunctionalInterface
+	public interface ThrowingSupplier<T> {
+		T get() throws Exception;
+	}
+
+	private StatementAssertions() {
+	}
+
+	public static <T> T assertStatementsAtMost(int budget, ThrowingSupplier<T> action) throws Exception {
+		try (var count = StatementCounter.start()) {
+			var result = action.get();
+			assertThat(count.getStatements()).as("SQL statements run").isLessThanOrEqualTo(budget);
+			return result;
+		}
+	}
+
+	public static <T> T assertStatements(int expected, ThrowingSupplier<T> action) throws Exception {
+		try (var count = StatementCounter.start()) {
+			var result = action.get();
+			assertThat(count.getStatements()).as("SQL statements run").isEqualTo(expected);
+			return result;
+		}
+	}
+}
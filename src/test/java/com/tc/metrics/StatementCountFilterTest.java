@@ -0,0 +1,53 @@
+package com.tc.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class StatementCountFilterTest {
+
+	@Test
+	void recordsStatementsPerRequest() throws Exception {
+		var registry = new SimpleMeterRegistry();
+		var filter = new StatementCountFilter(registry, 20);
+		var inspector = new StatementCounter();
+
+		var request = new MockHttpServletRequest("GET", "/api/companies/1/drivers");
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+			@Override
+			protected void service(HttpServletRequest req, HttpServletResponse resp) {
+				req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/companies/{companyId}/drivers");
+				inspector.inspect("select 1");
+				inspector.inspect("select 2");
+			}
+		}));
+
+		var summary = registry.find(StatementCountFilter.METRIC_NAME)
+				.tags("method", "GET", "uri", "/api/companies/{companyId}/drivers")
+				.summary();
+		assertThat(summary).isNotNull();
+		assertThat(summary.count()).isEqualTo(1);
+		assertThat(summary.totalAmount()).isEqualTo(2);
+		assertThat(StatementCounter.current()).isZero();
+	}
+
+	@Test
+	void skipsRequestsWithoutHandler() throws Exception {
+		var registry = new SimpleMeterRegistry();
+		var filter = new StatementCountFilter(registry, 20);
+
+		filter.doFilter(new MockHttpServletRequest("GET", "/missing"), new MockHttpServletResponse(),
+				new MockFilterChain());
+
+		assertThat(registry.find(StatementCountFilter.METRIC_NAME).summary()).isNull();
+	}
+}
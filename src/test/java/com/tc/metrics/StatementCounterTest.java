@@ -0,0 +1,48 @@
+package com.tc.metrics;
+
+import static com.tc.metrics.StatementAssertions.assertStatements;
+import static com.tc.metrics.StatementAssertions.assertStatementsAtMost;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class StatementCounterTest {
+	private final StatementCounter inspector = new StatementCounter();
+
+	@Test
+	void addsNestedCountsToTheEnclosingCount() {
+		try (var outer = StatementCounter.start()) {
+			inspector.inspect("select 1");
+			try (var inner = StatementCounter.start()) {
+				inspector.inspect("select 2");
+				inspector.inspect("select 3");
+				assertThat(inner.getStatements()).isEqualTo(2);
+			}
+			assertThat(outer.getStatements()).isEqualTo(3);
+		}
+		assertThat(StatementCounter.current()).isZero();
+	}
+
+	@Test
+	void ignoresStatementsOutsideACount() {
+		inspector.inspect("select 1");
+
+		assertThat(StatementCounter.current()).isZero();
+	}
+
+	@Test
+	void failsWhenTheBudgetIsExceeded() throws Exception {
+		assertThat(assertStatementsAtMost(2, () -> {
+			inspector.inspect("select 1");
+			return "ok";
+		})).isEqualTo("ok");
+		assertStatements(1, () -> inspector.inspect("select 1"));
+
+		assertThatThrownBy(() -> assertStatementsAtMost(1, () -> {
+			inspector.inspect("select 1");
+			return inspector.inspect("select 2");
+		})).isInstanceOf(AssertionError.class).hasMessageContaining("SQL statements run");
+		assertThat(StatementCounter.current()).isZero();
+	}
+}
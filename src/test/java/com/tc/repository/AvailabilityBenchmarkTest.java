@@ -0,0 +1,128 @@
+package com.tc.repository;
+
+import static com.tc.benchmark.Benchmarks.bestNanos;
+import static com.tc.benchmark.Benchmarks.report;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tc.benchmark.EnabledForBenchmarks;
+import com.tc.response.DriverResponse;
+import com.tc.response.VehicleResponse;
+
+/**
+ * Times the availability anti-join for a company with 10k drivers and
+ * vehicles, each with a long transport history, against checking every
+ * candidate with its own query. Needs the configured database, the seeded
+ * rows are rolled back afterwards.
+ */
+@SpringBootTest
+@Transactional
+@EnabledForBenchmarks
+class AvailabilityBenchmarkTest {
+	private static final int DRIVERS = 10_000;
+	private static final int TRANSPORTS_PER_DRIVER = 50;
+	private static final LocalDate HISTORY_START = LocalDate.of(2020, 1, 1);
+	// every even driver and vehicle has a transport on this day, every odd one is free
+	private static final LocalDate DAY = HISTORY_START.plusDays(31);
+
+	@Autowired
+	private AvailabilityRepository availabilityRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void antiJoinBeatsPerCandidateLookups() {
+		var companyId = seed();
+
+		var drivers = availabilityRepository.findFreeDrivers(companyId, DAY, DAY, null);
+		var vehicles = availabilityRepository.findFreeVehicles(companyId, DAY, DAY, null, "TRUCK");
+		assertThat(drivers).hasSize(DRIVERS / 2);
+		assertThat(vehicles).hasSize(DRIVERS / 2);
+		var candidates = perCandidate(companyId);
+		assertThat(candidates.drivers()).isEqualTo(drivers.stream().map(DriverResponse::id).toList());
+		assertThat(candidates.vehicles()).isEqualTo(vehicles.stream().map(VehicleResponse::id).toList());
+
+		// both sides count what they find, so neither result goes unused
+		var found = new long[2];
+		var antiJoin = bestNanos(() -> {
+			found[0] += availabilityRepository.findFreeDrivers(companyId, DAY, DAY, null).size();
+			found[0] += availabilityRepository.findFreeVehicles(companyId, DAY, DAY, null, "TRUCK").size();
+		});
+		var lookups = bestNanos(() -> {
+			var free = perCandidate(companyId);
+			found[1] += free.drivers().size() + free.vehicles().size();
+		});
+		report("Availability of %,d drivers and vehicles: anti-join %.2f ms, per candidate %.2f ms", DRIVERS,
+				antiJoin / 1e6, lookups / 1e6);
+
+		assertThat(found[1]).isEqualTo(found[0]);
+		assertThat(antiJoin).isLessThan(lookups);
+	}
+
+	/**
+	 * What a client paging through the drivers and vehicles has to do: one
+	 * overlap lookup per candidate.
+	 */
+	private FreeCandidates perCandidate(Long companyId) {
+		var freeDrivers = new ArrayList<Long>();
+		for (var driverId : jdbcTemplate.queryForList("select id from driver where company_id = ? order by id",
+				Long.class, companyId)) {
+			var busy = jdbcTemplate.queryForObject("select exists (select 1 from transport_booking "
+					+ "where driver_id = ? and period && daterange(?, ?, '[]'))", Boolean.class, driverId, DAY, DAY);
+			if (!busy) {
+				freeDrivers.add(driverId);
+			}
+		}
+		var freeVehicles = new ArrayList<Long>();
+		for (var vehicleId : jdbcTemplate.queryForList("select id from vehicle where company_id = ? order by id",
+				Long.class, companyId)) {
+			var busy = jdbcTemplate.queryForObject("select exists (select 1 from transport_booking "
+					+ "where vehicle_id = ? and period && daterange(?, ?, '[]'))", Boolean.class, vehicleId, DAY, DAY);
+			if (!busy) {
+				freeVehicles.add(vehicleId);
+			}
+		}
+		return new FreeCandidates(freeDrivers, freeVehicles);
+	}
+
+	private record FreeCandidates(List<Long> drivers, List<Long> vehicles) {
+	}
+
+	private Long seed() {
+		var companyId = jdbcTemplate.queryForObject("select nextval('company_seq')", Long.class);
+		var customerId = jdbcTemplate.queryForObject("select nextval('customer_seq')", Long.class);
+		jdbcTemplate.update("insert into company (id, name) values (?, 'benchmark')", companyId);
+		jdbcTemplate.update("insert into customer (id, name) values (?, 'benchmark')", customerId);
+		jdbcTemplate.update("insert into company_customer (company_id, customer_id) values (?, ?)", companyId,
+				customerId);
+		jdbcTemplate.update("insert into driver (id, company_id, first_name, last_name, salary) "
+				+ "select nextval('driver_seq'), ?, 'first' || i, 'last' || i, 1000 from generate_series(1, ?) i",
+				companyId, DRIVERS);
+		jdbcTemplate.update("insert into vehicle (id, company_id, capacity, registration, type) "
+				+ "select nextval('vehicle_seq'), ?, 10000, 'benchmark' || i, 'TRUCK' from generate_series(1, ?) i",
+				companyId, DRIVERS);
+		// a transport every third day, odd pairs shifted by two days
+		jdbcTemplate.update("insert into cargo_transport (id, company_id, customer_id, driver_id, vehicle_id, "
+				+ "start_address, end_address, start_date, end_date, price, is_paid, cargo_type, cargo_weight) "
+				+ "select nextval('transport_seq'), ?, ?, d.id, v.id, 'start', 'end', "
+				+ "?::date + k * 3 + (d.n % 2)::integer * 2, ?::date + k * 3 + (d.n % 2)::integer * 2 + 1, "
+				+ "100, true, 'general', 1000 "
+				+ "from (select id, row_number() over (order by id) as n from driver where company_id = ?) d "
+				+ "join (select id, row_number() over (order by id) as n from vehicle where company_id = ?) v "
+				+ "on v.n = d.n "
+				+ "cross join generate_series(0, ? - 1) k",
+				companyId, customerId, HISTORY_START, HISTORY_START, companyId, companyId, TRANSPORTS_PER_DRIVER);
+		jdbcTemplate.execute("analyze driver, vehicle, transport_booking");
+		return companyId;
+	}
+}
@@ -0,0 +1,114 @@
+package com.tc.repository;
+
+import static com.tc.benchmark.Benchmarks.best;
+import static com.tc.benchmark.Benchmarks.report;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.function.IntConsumer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tc.benchmark.EnabledForBenchmarks;
+import com.tc.model.CargoTransport;
+import com.tc.response.CargoTransportResponse;
+import com.tc.specification.TransportSpecification;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Compares the bytes allocated per cargo transport page by the entity listing
+ * the endpoint used to run against the record projection it runs now. Needs
+ * the configured database, the seeded rows are rolled back afterwards.
+ */
+@SpringBootTest
+@Transactional
+@EnabledForBenchmarks
+class TransportListingBenchmarkTest {
+	private static final int TRANSPORTS = 20_000;
+	private static final int PAGES = 200;
+
+	@Autowired
+	private CargoTransportRepository cargoTransportRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void projectionAllocatesLessPerPage() {
+		var companyId = seed();
+
+		IntConsumer entities = page -> {
+			cargoTransportRepository.findAll(TransportSpecification.<CargoTransport>hasCompanyId(companyId),
+					PageRequest.of(page, 20, Sort.by("endDate", "id"))).map(transport -> new CargoTransportResponse(
+							transport.getId(),
+							transport.getStartAddress(),
+							transport.getEndAddress(),
+							transport.getStartDate(),
+							transport.getEndDate(),
+							transport.getCargoType(),
+							transport.getCargoWeight(),
+							transport.getPrice(),
+							transport.getIsPaid(),
+							transport.getCustomer().getId(),
+							transport.getVehicle().getId(),
+							transport.getDriver().getId()))
+					.getContent();
+			entityManager.clear();
+		};
+		IntConsumer projection = page -> {
+			cargoTransportRepository.findPage(companyId, null, PageRequest.of(page, 20)).getContent();
+			entityManager.clear();
+		};
+
+		var entityBytes = best(() -> bytesPerPage(entities));
+		var projectionBytes = best(() -> bytesPerPage(projection));
+		report("Cargo transport page: entities %,d B, projection %,d B", entityBytes, projectionBytes);
+
+		assertThat(projectionBytes).isLessThan(entityBytes);
+	}
+
+	private long bytesPerPage(IntConsumer listPage) {
+		var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		var threadId = Thread.currentThread().getId();
+		var before = threads.getThreadAllocatedBytes(threadId);
+		for (var page = 0; page < PAGES; page++) {
+			listPage.accept(page);
+		}
+		return (threads.getThreadAllocatedBytes(threadId) - before) / PAGES;
+	}
+
+	private Long seed() {
+		var companyId = jdbcTemplate.queryForObject("select nextval('company_seq')", Long.class);
+		var customerId = jdbcTemplate.queryForObject("select nextval('customer_seq')", Long.class);
+		var driverId = jdbcTemplate.queryForObject("select nextval('driver_seq')", Long.class);
+		var vehicleId = jdbcTemplate.queryForObject("select nextval('vehicle_seq')", Long.class);
+		jdbcTemplate.update("insert into company (id, name) values (?, 'benchmark')", companyId);
+		jdbcTemplate.update("insert into customer (id, name) values (?, 'benchmark')", customerId);
+		jdbcTemplate.update("insert into company_customer (company_id, customer_id) values (?, ?)", companyId,
+				customerId);
+		jdbcTemplate.update("insert into driver (id, company_id, first_name, last_name, salary) "
+				+ "values (?, ?, 'first', 'last', 1000)", driverId, companyId);
+		jdbcTemplate.update("insert into vehicle (id, company_id, capacity, registration, type) "
+				+ "values (?, ?, 40000, 'benchmark', 'TRUCK')", vehicleId, companyId);
+		// back to back two day transports, as the driver and vehicle cannot be booked twice on a day
+		jdbcTemplate.update("insert into cargo_transport (id, company_id, customer_id, driver_id, vehicle_id, "
+				+ "start_address, end_address, start_date, end_date, price, is_paid, cargo_type, cargo_weight) "
+				+ "select nextval('transport_seq'), ?, ?, ?, ?, 'start', 'end ' || (i % 50), ?::date + i * 2, "
+				+ "?::date + i * 2 + 1, ?, i % 4 = 0, 'general', 1000 from generate_series(1, ?) i",
+				companyId, customerId, driverId, vehicleId, LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 1),
+				new BigDecimal("125.50"), TRANSPORTS);
+		return companyId;
+	}
+}
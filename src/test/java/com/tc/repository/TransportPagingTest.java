@@ -0,0 +1,127 @@
+package com.tc.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tc.request.TransportCursor;
+import com.tc.response.CargoTransportResponse;
+import com.tc.response.TransportResponse;
+
+/**
+ * Pages through a company's transports with cursors, including transports
+ * without an end date, which the listings sort last. Needs the configured
+ * database, the seeded rows are rolled back afterwards.
+ */
+@SpringBootTest
+@Transactional
+class TransportPagingTest {
+	private static final int PAGE_SIZE = 2;
+
+	@Autowired
+	private CargoTransportRepository cargoTransportRepository;
+
+	@Autowired
+	private TransportQueryRepository transportQueryRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Long companyId;
+	private Long customerId;
+	private Long driverId;
+	private Long vehicleId;
+
+	@BeforeEach
+	void seed() {
+		companyId = nextval("company_seq");
+		customerId = nextval("customer_seq");
+		driverId = nextval("driver_seq");
+		vehicleId = nextval("vehicle_seq");
+		jdbcTemplate.update("insert into company (id, name) values (?, 'paging')", companyId);
+		jdbcTemplate.update("insert into customer (id, name) values (?, 'paging')", customerId);
+		jdbcTemplate.update("insert into company_customer (company_id, customer_id) values (?, ?)", companyId,
+				customerId);
+		jdbcTemplate.update("insert into driver (id, company_id, first_name, last_name, salary) "
+				+ "values (?, ?, 'first', 'last', 1000)", driverId, companyId);
+		jdbcTemplate.update("insert into vehicle (id, company_id, capacity, registration, type) "
+				+ "values (?, ?, 40000, 'paging', 'TRUCK')", vehicleId, companyId);
+	}
+
+	@Test
+	void pagesCargoTransportsWithoutEndDateLast() {
+		var undated = insert("cargo_transport", null);
+		var late = insert("cargo_transport", LocalDate.of(2024, 3, 1));
+		var early = insert("cargo_transport", LocalDate.of(2024, 1, 1));
+		var undatedAgain = insert("cargo_transport", null);
+		var sameDay = insert("cargo_transport", LocalDate.of(2024, 1, 1));
+
+		var ids = pageThrough(
+				cursor -> cursor == null
+						? cargoTransportRepository.findPage(companyId, null, PageRequest.of(0, PAGE_SIZE))
+						: cargoTransportRepository.findPageAfter(companyId, null, cursor.endDate(), cursor.id(),
+								PageRequest.of(0, PAGE_SIZE)),
+				CargoTransportResponse::endDate, CargoTransportResponse::id);
+
+		assertThat(ids).containsExactly(early, sameDay, late, undated, undatedAgain);
+	}
+
+	@Test
+	void pagesAllTransportsWithoutEndDateLast() {
+		var undatedCargo = insert("cargo_transport", null);
+		var cargo = insert("cargo_transport", LocalDate.of(2024, 2, 1));
+		var undatedPassenger = insert("passenger_transport", null);
+		var passenger = insert("passenger_transport", LocalDate.of(2024, 1, 1));
+
+		var ids = pageThrough(
+				cursor -> transportQueryRepository.findPage(companyId, null, cursor, PageRequest.of(0, PAGE_SIZE)),
+				TransportResponse::endDate, TransportResponse::id);
+
+		assertThat(ids).containsExactly(passenger, cargo, undatedCargo, undatedPassenger);
+	}
+
+	/**
+	 * Follows the cursors from the first page to the last, through their
+	 * encoded form, as a client would.
+	 */
+	private <T> List<Long> pageThrough(Function<TransportCursor, Slice<T>> findPage,
+			Function<T, LocalDate> endDate, Function<T, Long> id) {
+		var ids = new ArrayList<Long>();
+		TransportCursor cursor = null;
+		while (true) {
+			var page = findPage.apply(cursor);
+			page.getContent().forEach(transport -> ids.add(id.apply(transport)));
+			if (!page.hasNext()) {
+				return ids;
+			}
+			var last = page.getContent().get(page.getContent().size() - 1);
+			cursor = TransportCursor.decode(new TransportCursor(endDate.apply(last), id.apply(last)).encode());
+		}
+	}
+
+	private Long insert(String table, LocalDate endDate) {
+		var id = nextval("transport_seq");
+		// without a start date the transport takes no booking, so several can share a day
+		jdbcTemplate.update("insert into " + table + " (id, company_id, customer_id, driver_id, vehicle_id, "
+				+ "start_address, end_address, end_date, price, is_paid) "
+				+ "values (?, ?, ?, ?, ?, 'start', 'end', ?, 100, false)",
+				id, companyId, customerId, driverId, vehicleId, endDate);
+		return id;
+	}
+
+	private Long nextval(String sequence) {
+		return jdbcTemplate.queryForObject("select nextval('" + sequence + "')", Long.class);
+	}
+}
@@ -0,0 +1,99 @@
+package com.tc.service;
+
+import static com.tc.benchmark.Benchmarks.bestNanos;
+import static com.tc.benchmark.Benchmarks.report;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.tc.benchmark.EnabledForBenchmarks;
+import com.tc.service.CargoPlanner.Order;
+import com.tc.service.CargoPlanner.Truck;
+
+class CargoPlannerTest {
+	private static final LocalDate MONDAY = LocalDate.of(2024, 3, 4);
+
+	@Test
+	void packsHeaviestOrdersFirstOntoTheFirstTripWithRoom() {
+		var planner = new CargoPlanner(List.of(new Truck(1, 10), new Truck(2, 10)), (id, from, to) -> true);
+
+		var plan = planner.plan(List.of(
+				order(0, 4, "Sofia"),
+				order(1, 6, "Sofia"),
+				order(2, 5, "Sofia"),
+				order(3, 5, "Sofia")));
+
+		assertThat(plan.unassigned()).isEmpty();
+		assertThat(plan.trips()).extracting(CargoPlanner.Trip::orders)
+				.containsExactly(List.of(1, 0), List.of(2, 3));
+		assertThat(plan.trips()).extracting(CargoPlanner.Trip::load).containsExactly(10, 10);
+	}
+
+	@Test
+	void keepsDestinationsAndWindowsApart() {
+		var planner = new CargoPlanner(List.of(new Truck(1, 100), new Truck(2, 100), new Truck(3, 100)),
+				(id, from, to) -> true);
+
+		var plan = planner.plan(List.of(
+				order(0, 10, "Sofia"),
+				order(1, 10, "Varna"),
+				new Order(2, 10, "Sofia", MONDAY.plusDays(7), MONDAY.plusDays(8))));
+
+		assertThat(plan.trips()).hasSize(3);
+		// the trip of next week may reuse a truck of this week
+		assertThat(plan.trips()).extracting(trip -> trip.truck().id()).containsExactly(1L, 2L, 1L);
+	}
+
+	@Test
+	void skipsBookedTrucksAndLeavesWhatFitsNowhereUnassigned() {
+		var planner = new CargoPlanner(List.of(new Truck(1, 100), new Truck(2, 50)), (id, from, to) -> id != 1);
+
+		var plan = planner.plan(List.of(order(0, 80, "Sofia"), order(1, 40, "Sofia"), order(2, 20, "Sofia")));
+
+		assertThat(plan.trips()).singleElement().satisfies(trip -> {
+			assertThat(trip.truck().id()).isEqualTo(2L);
+			assertThat(trip.orders()).containsExactly(1);
+		});
+		assertThat(plan.unassigned()).containsExactly(0, 2);
+	}
+
+	@Test
+	@EnabledForBenchmarks
+	void plansThousandsOfOrdersWellUnderASecond() {
+		var random = new Random(11);
+		var trucks = new ArrayList<Truck>();
+		for (var i = 0; i < 500; i++) {
+			trucks.add(new Truck(i + 1, 10_000 + random.nextInt(30_000)));
+		}
+		var booked = new HashSet<Long>();
+		for (var i = 0; i < 100; i++) {
+			booked.add((long) 1 + random.nextInt(trucks.size()));
+		}
+		var planner = new CargoPlanner(trucks, (id, from, to) -> !booked.contains(id));
+
+		for (var size : new int[] { 1_000, 5_000, 10_000 }) {
+			var orders = new ArrayList<Order>(size);
+			for (var i = 0; i < size; i++) {
+				var start = MONDAY.plusDays(random.nextInt(14));
+				orders.add(new Order(i, 100 + random.nextInt(9_900), "destination " + random.nextInt(40), start,
+						start.plusDays(random.nextInt(3))));
+			}
+			var best = bestNanos(() -> planner.plan(orders));
+			var plan = planner.plan(orders);
+			report("CargoPlanner: %,d orders onto %d trips in %.2f ms, %d unassigned", size, plan.trips().size(),
+					best / 1e6, plan.unassigned().size());
+
+			assertThat(best).isLessThan(250_000_000L);
+		}
+	}
+
+	private static Order order(int index, int weight, String destination) {
+		return new Order(index, weight, destination, MONDAY, MONDAY.plusDays(1));
+	}
+}
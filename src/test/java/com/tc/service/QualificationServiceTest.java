@@ -0,0 +1,259 @@
+package com.tc.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+import org.hibernate.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tc.exception.BadRequestException;
+import com.tc.model.Qualification;
+import com.tc.repository.DriverRepository;
+import com.tc.response.AssignQualificationsResponse;
+import com.tc.response.QualificationResponse;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Covers the qualification upserts: a type inserted by a concurrent
+ * transaction, the bulk assignment, and the eviction of the drivers' cached
+ * qualifications once the assignment commits. Needs the configured database.
+ * The rows are committed, so other transactions can see them, and deleted
+ * afterwards.
+ */
+@SpringBootTest
+class QualificationServiceTest {
+	private static final String QUALIFICATIONS = "com.tc.model.Driver.qualifications";
+
+	@Autowired
+	private QualificationService qualificationService;
+
+	@Autowired
+	private DriverRepository driverRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate transactionTemplate;
+	private final List<Long> companyIds = new ArrayList<>();
+	private final List<Long> driverIds = new ArrayList<>();
+	private final List<String> types = new ArrayList<>();
+
+	@BeforeEach
+	void createTransactionTemplate() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@AfterEach
+	void deleteRows() {
+		for (var driverId : driverIds) {
+			jdbcTemplate.update("delete from driver_qualification where driver_id = ?", driverId);
+			jdbcTemplate.update("delete from driver where id = ?", driverId);
+		}
+		for (var type : types) {
+			jdbcTemplate.update("delete from qualification where type = ?", type);
+		}
+		for (var companyId : companyIds) {
+			jdbcTemplate.update("delete from company where id = ?", companyId);
+		}
+	}
+
+	@Test
+	void findsATypeInsertedByAConcurrentTransaction() throws Exception {
+		var driverId = driver(company());
+		var type = type();
+		var inserted = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+
+		try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			var other = executor.submit(() -> transactionTemplate.execute(status -> {
+				var id = nextval("qualification_seq");
+				jdbcTemplate.update("insert into qualification (id, type) values (?, ?)", id, type);
+				inserted.countDown();
+				await(release);
+				return id;
+			}));
+			inserted.await();
+			// the first statement waits on the uncommitted row, does nothing, and does not see it
+			var assigned = executor.submit(() -> qualificationService.assign(driverId, type));
+			awaitLockWait();
+			release.countDown();
+
+			assertThat(assigned.get()).isEqualTo(new QualificationResponse(other.get(), type));
+		}
+		assertThat(qualificationIds(driverId)).containsExactly(qualificationId(type));
+	}
+
+	@Test
+	void findsTypesInsertedByAConcurrentTransactionInBulk() throws Exception {
+		var companyId = company();
+		var driverIds = List.of(driver(companyId), driver(companyId));
+		var raced = type();
+		var created = type();
+		var inserted = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+
+		try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			var other = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+				jdbcTemplate.update("insert into qualification (id, type) values (?, ?)",
+						nextval("qualification_seq"), raced);
+				inserted.countDown();
+				await(release);
+			}));
+			inserted.await();
+			var assigned = executor.submit(() -> qualificationService.assignAll(companyId, driverIds,
+					List.of(raced, created)));
+			awaitLockWait();
+			release.countDown();
+			other.get();
+
+			assertThat(assigned.get()).isEqualTo(new AssignQualificationsResponse(2, 2, 4));
+		}
+		for (var driverId : driverIds) {
+			assertThat(qualificationIds(driverId)).containsExactlyInAnyOrder(qualificationId(raced),
+					qualificationId(created));
+		}
+	}
+
+	@Test
+	void assignsEveryTypeToEveryDriverOnce() {
+		var companyId = company();
+		var first = driver(companyId);
+		var second = driver(companyId);
+		var existing = type();
+		jdbcTemplate.update("insert into qualification (id, type) values (?, ?)", nextval("qualification_seq"),
+				existing);
+		var created = type();
+		jdbcTemplate.update("insert into driver_qualification (driver_id, qualification_id) values (?, ?)", first,
+				qualificationId(existing));
+
+		var response = qualificationService.assignAll(companyId, Arrays.asList(first, second, first, null),
+				List.of(existing, created, created));
+
+		// the first driver already had the existing type
+		assertThat(response).isEqualTo(new AssignQualificationsResponse(2, 2, 3));
+		for (var driverId : List.of(first, second)) {
+			assertThat(qualificationIds(driverId)).containsExactlyInAnyOrder(qualificationId(existing),
+					qualificationId(created));
+		}
+		assertThat(qualificationService.assignAll(companyId, List.of(first, second), List.of(existing, created)))
+				.isEqualTo(new AssignQualificationsResponse(2, 2, 0));
+	}
+
+	@Test
+	void assignsNothingWhenADriverWorksForAnotherCompany() {
+		var companyId = company();
+		var driverId = driver(companyId);
+		var stranger = driver(company());
+		var type = type();
+
+		assertThatThrownBy(() -> qualificationService.assignAll(companyId, List.of(driverId, stranger),
+				List.of(type))).isInstanceOf(BadRequestException.class);
+
+		assertThat(qualificationIds(driverId)).isEmpty();
+		assertThat(jdbcTemplate.queryForObject("select count(*) from qualification where type = ?", Long.class,
+				type)).isZero();
+	}
+
+	@Test
+	void evictsTheCachedQualificationsOfTheDriverAfterCommit() {
+		var driverId = driver(company());
+		var type = type();
+		var cache = entityManagerFactory.getCache().unwrap(Cache.class);
+		assertThat(qualificationTypes(driverId)).isEmpty();
+		assertThat(cache.containsCollection(QUALIFICATIONS, driverId)).isTrue();
+
+		transactionTemplate.executeWithoutResult(status -> {
+			qualificationService.assign(driverId, type);
+			// other transactions still read the committed qualifications
+			assertThat(cache.containsCollection(QUALIFICATIONS, driverId)).isTrue();
+		});
+
+		assertThat(cache.containsCollection(QUALIFICATIONS, driverId)).isFalse();
+		assertThat(qualificationTypes(driverId)).containsExactly(type);
+	}
+
+	private List<String> qualificationTypes(Long driverId) {
+		return transactionTemplate.execute(status -> driverRepository.findById(driverId).orElseThrow()
+				.getQualifications().stream().map(Qualification::getType).toList());
+	}
+
+	private List<Long> qualificationIds(Long driverId) {
+		return jdbcTemplate.queryForList("select qualification_id from driver_qualification where driver_id = ?",
+				Long.class, driverId);
+	}
+
+	private Long qualificationId(String type) {
+		return jdbcTemplate.queryForObject("select id from qualification where type = ?", Long.class, type);
+	}
+
+	/**
+	 * Waits until a statement of the service is blocked on a row lock of the
+	 * concurrent transaction.
+	 */
+	private void awaitLockWait() throws InterruptedException {
+		var deadline = Instant.now().plus(Duration.ofSeconds(10));
+		while (jdbcTemplate.queryForObject("select count(*) from pg_stat_activity "
+				+ "where datname = current_database() and wait_event_type = 'Lock' "
+				+ "and query like '%qualification_seq%'", Long.class) == 0) {
+			assertThat(Instant.now()).as("lock wait").isBefore(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private Long company() {
+		var companyId = nextval("company_seq");
+		jdbcTemplate.update("insert into company (id, name) values (?, 'qualifications')", companyId);
+		companyIds.add(companyId);
+		return companyId;
+	}
+
+	private Long driver(Long companyId) {
+		var driverId = nextval("driver_seq");
+		jdbcTemplate.update("insert into driver (id, company_id, first_name, last_name, salary) "
+				+ "values (?, ?, 'first', 'last', 1000)", driverId, companyId);
+		driverIds.add(driverId);
+		return driverId;
+	}
+
+	private String type() {
+		var type = "qualification " + UUID.randomUUID();
+		types.add(type);
+		return type;
+	}
+
+	private Long nextval(String sequence) {
+		return jdbcTemplate.queryForObject("select nextval('" + sequence + "')", Long.class);
+	}
+}
@@ -0,0 +1,155 @@
+package com.tc.service;
+
+import static com.tc.benchmark.Benchmarks.bestNanos;
+import static com.tc.benchmark.Benchmarks.report;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.tc.benchmark.EnabledForBenchmarks;
+import com.tc.repository.projection.DriverRollupTotals;
+import com.tc.response.report.CompanyReportResponse;
+import com.tc.response.report.DriverRef;
+import com.tc.response.report.TransportRef;
+
+class ReportAggregatorTest {
+
+	record Row(long id, String type, long driverId, BigDecimal price, boolean isPaid) {
+	}
+
+	@Test
+	void matchesStreamReport() {
+		var rows = generate(5_000, 137, new Random(42));
+
+		assertThat(aggregate(rows)).isEqualTo(streamReport(rows));
+	}
+
+	@Test
+	void reportsZeroRevenueWhenNothingIsPaid() {
+		var rows = List.of(
+				new Row(1, ReportAggregator.PASSENGER, 7, new BigDecimal("10.50"), false),
+				new Row(2, ReportAggregator.CARGO, 7, new BigDecimal("3.25"), false));
+
+		var report = aggregate(rows);
+
+		assertThat(report).isEqualTo(streamReport(rows));
+		assertThat(report.totalRevenue()).isSameAs(BigDecimal.ZERO);
+		assertThat(report.drivers()).containsExactly(new DriverRef(7L, "first7", "last7", 2L, BigDecimal.ZERO));
+	}
+
+	@Test
+	void reportsRevenueOfDriversWhosePaidTransportsSumToZero() {
+		var rows = List.of(
+				new Row(1, ReportAggregator.PASSENGER, 7, new BigDecimal("0.00"), true),
+				new Row(2, ReportAggregator.CARGO, 7, new BigDecimal("3.25"), false));
+
+		var report = aggregate(rows);
+
+		assertThat(report).isEqualTo(streamReport(rows));
+		assertThat(report.drivers()).containsExactly(new DriverRef(7L, "first7", "last7", 2L, new BigDecimal("0.00")));
+	}
+
+	@Test
+	@EnabledForBenchmarks
+	void scalesLinearlyWithTransportCount() {
+		var random = new Random(7);
+		var sizes = new int[] { 250_000, 500_000, 1_000_000, 2_000_000 };
+		var nanosPerTransport = new double[sizes.length];
+		for (var i = 0; i < sizes.length; i++) {
+			var input = rollup(generate(sizes[i], 2_000, random));
+			var best = bestNanos(() -> aggregate(input));
+			nanosPerTransport[i] = (double) best / sizes[i];
+			report("ReportAggregator: %,d transports in %.2f ms (%.1f ns/transport)", sizes[i], best / 1e6,
+					nanosPerTransport[i]);
+		}
+
+		assertThat(nanosPerTransport[sizes.length - 1]).isLessThan(nanosPerTransport[0] * 3);
+	}
+
+	/**
+	 * What ReportService reads for the rows: the rollup totals per driver, by
+	 * driver id, and the unpaid passenger and cargo transport ids.
+	 */
+	record Rollup(List<DriverRollupTotals> totals, List<Row> unpaid) {
+	}
+
+	private static CompanyReportResponse aggregate(List<Row> rows) {
+		return aggregate(rollup(rows));
+	}
+
+	private static CompanyReportResponse aggregate(Rollup rollup) {
+		var aggregator = new ReportAggregator(rollup.totals().size());
+		for (var totals : rollup.totals()) {
+			aggregator.addDriverTotals(totals);
+		}
+		for (var row : rollup.unpaid()) {
+			aggregator.addUnpaid(row.id(), row.type());
+		}
+		return aggregator.toResponse();
+	}
+
+	private static Rollup rollup(List<Row> rows) {
+		var byDriver = new TreeMap<Long, List<Row>>();
+		for (var row : rows) {
+			byDriver.computeIfAbsent(row.driverId(), k -> new ArrayList<>()).add(row);
+		}
+		var totals = new ArrayList<DriverRollupTotals>(byDriver.size());
+		byDriver.forEach((driverId, driverRows) -> {
+			var passenger = driverRows.stream().filter(r -> r.type().equals(ReportAggregator.PASSENGER)).count();
+			var paidRevenue = driverRows.stream().filter(Row::isPaid).map(Row::price).reduce(BigDecimal.ZERO,
+					BigDecimal::add);
+			var unpaid = driverRows.stream().filter(r -> !r.isPaid()).count();
+			totals.add(new DriverRollupTotals(driverId, "first" + driverId, "last" + driverId, passenger,
+					driverRows.size() - passenger, paidRevenue, unpaid));
+		});
+		return new Rollup(totals, rows.stream().filter(r -> !r.isPaid()).toList());
+	}
+
+	/**
+	 * The original per-driver stream implementation the aggregator replaces.
+	 */
+	private static CompanyReportResponse streamReport(List<Row> rows) {
+		var passenger = rows.stream().filter(r -> r.type().equals(ReportAggregator.PASSENGER)).toList();
+		var cargo = rows.stream().filter(r -> r.type().equals(ReportAggregator.CARGO)).toList();
+
+		var unpaid = Stream.concat(
+				passenger.stream().filter(r -> !r.isPaid()).map(r -> new TransportRef(r.id(), r.type())),
+				cargo.stream().filter(r -> !r.isPaid()).map(r -> new TransportRef(r.id(), r.type())))
+				.toList();
+		var totalRevenue = Stream.concat(passenger.stream(), cargo.stream()).filter(Row::isPaid)
+				.map(Row::price).reduce(BigDecimal.ZERO, BigDecimal::add);
+		var drivers = Stream.concat(passenger.stream(), cargo.stream()).map(Row::driverId).distinct()
+				.map(driverId -> new DriverRef(driverId, "first" + driverId, "last" + driverId,
+						Stream.concat(passenger.stream(), cargo.stream()).filter(r -> r.driverId() == driverId)
+								.count(),
+						Stream.concat(passenger.stream(), cargo.stream())
+								.filter(r -> r.driverId() == driverId && r.isPaid())
+								.map(Row::price).reduce(BigDecimal.ZERO, BigDecimal::add)))
+				.toList();
+		// the rollup lists drivers by id
+		return new CompanyReportResponse(passenger.size(), cargo.size(), totalRevenue, unpaid,
+				drivers.stream().sorted(Comparator.comparing(DriverRef::id)).toList());
+	}
+
+	private static List<Row> generate(int transports, int drivers, Random random) {
+		var rows = new ArrayList<Row>(transports);
+		for (var i = 0; i < transports; i++) {
+			var type = random.nextBoolean() ? ReportAggregator.PASSENGER : ReportAggregator.CARGO;
+			var price = BigDecimal.valueOf(100 + random.nextInt(1_000_000), 2);
+			rows.add(new Row(i + 1, type, 1 + random.nextInt(drivers), price, random.nextInt(4) != 0));
+		}
+		// the stream report lists passenger transports before cargo ones
+		var ordered = new ArrayList<Row>(transports);
+		rows.stream().filter(r -> r.type().equals(ReportAggregator.PASSENGER)).forEach(ordered::add);
+		rows.stream().filter(r -> r.type().equals(ReportAggregator.CARGO)).forEach(ordered::add);
+		return ordered;
+	}
+}
@@ -0,0 +1,50 @@
+package com.tc.service;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.tc.exception.BadRequestException;
+
+class TransportBookingsTest {
+	private final TransportBookings bookings = new TransportBookings(List.of(
+			new TransportBookings.Booking(1L, 10L, 20L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 5))));
+
+	@Test
+	void rejectsPeriodsSharingADayWithABooking() {
+		assertThatThrownBy(() -> bookings.claim(null, 10L, 21L, LocalDate.of(2024, 3, 5), LocalDate.of(2024, 3, 7)))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("driver is already booked from 2024-03-01 to 2024-03-05");
+		assertThatThrownBy(() -> bookings.claim(null, 11L, 20L, LocalDate.of(2024, 2, 27), LocalDate.of(2024, 3, 1)))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("vehicle is already booked from 2024-03-01 to 2024-03-05");
+	}
+
+	@Test
+	void acceptsAdjacentPeriodsAndOtherResources() {
+		assertThatCode(() -> {
+			bookings.claim(null, 10L, 20L, LocalDate.of(2024, 3, 6), LocalDate.of(2024, 3, 8));
+			bookings.claim(null, 10L, 20L, LocalDate.of(2024, 2, 20), LocalDate.of(2024, 2, 29));
+			bookings.claim(null, 11L, 21L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 5));
+		}).doesNotThrowAnyException();
+	}
+
+	@Test
+	void ignoresTheBookingOfTheUpdatedTransport() {
+		assertThatCode(() -> bookings.claim(1L, 10L, 20L, LocalDate.of(2024, 3, 3), LocalDate.of(2024, 3, 9)))
+				.doesNotThrowAnyException();
+	}
+
+	@Test
+	void rejectsOverlapsWithinTheSameBatch() {
+		bookings.claim(null, 12L, 22L, LocalDate.of(2024, 4, 1), LocalDate.of(2024, 4, 3));
+
+		assertThatThrownBy(() -> bookings.claim(null, 12L, 23L, LocalDate.of(2024, 4, 2), LocalDate.of(2024, 4, 2)))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("driver is already booked from 2024-04-01 to 2024-04-03");
+	}
+}
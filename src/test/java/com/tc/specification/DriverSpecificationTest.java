@@ -0,0 +1,147 @@
+package com.tc.specification;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tc.model.Driver;
+import com.tc.repository.DriverRepository;
+import com.tc.service.QualificationBitCache;
+
+/**
+ * Checks that the qualification mask filter matches the same drivers as one
+ * exists subquery per qualification, for every combination of qualifications
+ * with all and any, before and after the triggers update the masks. Needs the
+ * configured database, the seeded rows are rolled back afterwards.
+ */
+@SpringBootTest
+@Transactional
+class DriverSpecificationTest {
+
+	@Autowired
+	private DriverRepository driverRepository;
+
+	@Autowired
+	private QualificationBitCache qualificationBitCache;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Long companyId;
+	private final List<String> types = new ArrayList<>();
+	private final List<Long> qualificationIds = new ArrayList<>();
+	private final List<Long> driverIds = new ArrayList<>();
+
+	@BeforeEach
+	void seed() {
+		companyId = nextval("company_seq");
+		jdbcTemplate.update("insert into company (id, name) values (?, 'qualifications')", companyId);
+		// unique types, since the bit cache outlives the rolled back rows
+		var suffix = UUID.randomUUID().toString();
+		for (var name : List.of("a", "b", "c")) {
+			var id = nextval("qualification_seq");
+			jdbcTemplate.update("insert into qualification (id, type) values (?, ?)", id, name + suffix);
+			types.add(name + suffix);
+			qualificationIds.add(id);
+		}
+		// none, a, a+b, b+c, a+b+c
+		for (var qualifications : List.of(List.<Integer>of(), List.of(0), List.of(0, 1), List.of(1, 2),
+				List.of(0, 1, 2))) {
+			var driverId = nextval("driver_seq");
+			jdbcTemplate.update("insert into driver (id, company_id, first_name, last_name, salary) "
+					+ "values (?, ?, 'first', 'last', 1000)", driverId, companyId);
+			for (var qualification : qualifications) {
+				assign(driverId, qualification);
+			}
+			driverIds.add(driverId);
+		}
+	}
+
+	@Test
+	void matchesTheSameDriversAsTheJoin() {
+		assertSameDriversForAllCombinations();
+	}
+
+	@Test
+	void matchesNoDriverForAnUnknownQualification() {
+		var unknown = "unknown" + UUID.randomUUID();
+		for (var all : new boolean[] { true, false }) {
+			var filter = List.of(types.get(0), unknown);
+			assertThat(maskMatches(filter, all)).as("%s all=%s", filter, all).isEqualTo(joinMatches(filter, all));
+		}
+		assertThat(maskMatches(List.of(unknown), false)).isEmpty();
+	}
+
+	@Test
+	void followsQualificationsAddedToADriver() {
+		// the driver without qualifications gets c
+		assign(driverIds.get(0), 2);
+
+		assertThat(maskMatches(List.of(types.get(2)), true)).contains(driverIds.get(0));
+		assertSameDriversForAllCombinations();
+	}
+
+	@Test
+	void followsQualificationsRemovedFromADriver() {
+		// the driver with a and b loses a
+		jdbcTemplate.update("delete from driver_qualification where driver_id = ? and qualification_id = ?",
+				driverIds.get(2), qualificationIds.get(0));
+
+		assertThat(maskMatches(List.of(types.get(0)), true)).doesNotContain(driverIds.get(2));
+		assertSameDriversForAllCombinations();
+	}
+
+	private void assertSameDriversForAllCombinations() {
+		for (var subset = 1; subset < 1 << types.size(); subset++) {
+			var filter = new ArrayList<String>();
+			for (var i = 0; i < types.size(); i++) {
+				if ((subset & 1 << i) != 0) {
+					filter.add(types.get(i));
+				}
+			}
+			for (var all : new boolean[] { true, false }) {
+				assertThat(maskMatches(filter, all)).as("%s all=%s", filter, all)
+						.isEqualTo(joinMatches(filter, all));
+			}
+		}
+	}
+
+	private Set<Long> maskMatches(List<String> filter, boolean all) {
+		return matches(DriverSpecification.hasQualifications(filter, qualificationBitCache.resolve(filter), all));
+	}
+
+	/**
+	 * The filter as it was before the mask, one exists subquery per
+	 * qualification.
+	 */
+	private Set<Long> joinMatches(List<String> filter, boolean all) {
+		var specifications = filter.stream().map(DriverSpecification::hasQualification).toList();
+		return matches(all ? Specification.allOf(specifications) : Specification.anyOf(specifications));
+	}
+
+	private Set<Long> matches(Specification<Driver> specification) {
+		return driverRepository.findAll(DriverSpecification.hasCompanyId(companyId).and(specification)).stream()
+				.map(Driver::getId).collect(Collectors.toSet());
+	}
+
+	private void assign(Long driverId, int qualification) {
+		jdbcTemplate.update("insert into driver_qualification (driver_id, qualification_id) values (?, ?)",
+				driverId, qualificationIds.get(qualification));
+	}
+
+	private Long nextval(String sequence) {
+		return jdbcTemplate.queryForObject("select nextval('" + sequence + "')", Long.class);
+	}
+}